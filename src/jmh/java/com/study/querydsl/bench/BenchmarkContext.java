@@ -0,0 +1,81 @@
+package com.study.querydsl.bench;
+
+import com.study.querydsl.QuerydslApplication;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * 인메모리 H2 를 사용하며 SQL 로그는 끈다. (로그 출력이 측정값을 덮지 않도록)
+ */
+public final class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @param properties 기본 속성을 덮어쓸 "키=값" (같은 키면 뒤의 값이 쓰인다.)
+     */
+    public static BenchmarkContext start(String... properties) {
+        List<String> props = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.open-in-view=false",
+                "logging.level.root=warn",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.p6spy=warn"));
+        props.addAll(List.of(properties));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(props.toArray(String[]::new))
+                .run();
+        return new BenchmarkContext(context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public EntityManager entityManager() {
+        return context.getBean(EntityManager.class);
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return context.getBean(TransactionTemplate.class);
+    }
+
+    /**
+     * QuerydslBasicTest 와 같은 데이터 (팀 2, 회원 4)
+     */
+    public void seed() {
+        EntityManager em = entityManager();
+        transactionTemplate().executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4 ", 40, teamB));
+        });
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.study.querydsl.bench;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.QMember;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.query.MemberExpressions.*;
+
+/**
+ * 요청마다 표현식을 새로 만드는 경우와 MemberExpressions 상수를 재사용하는 경우의 할당량 비교
+ * (gc.alloc.rate.norm 참고)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionReuseBenchmark {
+
+    BenchmarkContext context;
+    JPAQueryFactory queryFactory;
+
+    int age = 20;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        queryFactory = context.getBean(JPAQueryFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String fresh() {
+        QMember memberSub = new QMember("memberSub");
+        JPAQuery<?> query = queryFactory
+                .selectFrom(member)
+                .where(member.age.goe(age),
+                        member.age.eq(
+                                JPAExpressions
+                                        .select(memberSub.age.max())
+                                        .from(memberSub)));
+        return query.toString();
+    }
+
+    @Benchmark
+    public String shared() {
+        JPAQuery<?> query = queryFactory
+                .selectFrom(member)
+                .where(AGE_GOE,
+                        member.age.eq(
+                                JPAExpressions
+                                        .select(MAX_AGE_SUB)
+                                        .from(MEMBER_SUB)))
+                .set(AGE_MIN, age);
+        return query.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.study.querydsl.bench;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영속성 컨텍스트 로딩, flush(dirty checking) 비용
+ *
+ * 바이트코드 향상 엔티티와 일반 엔티티를 비교하려면 두 번 실행해 결과를 비교한다.
+ * ./gradlew jmh -Pjmh.includes=FlushBenchmark
+ * ./gradlew clean jmh -Pjmh.includes=FlushBenchmark -PplainEntities
+ *
+ * 매 호출마다 트랜잭션을 열고 회원을 모두 읽은 뒤(load), 일부만 수정해 flush 하고 롤백한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlushBenchmark {
+
+    @Param({"1000", "5000"})
+    int members;
+
+    // 수정하는 회원 비율 (%)
+    @Param({"1", "100"})
+    int dirtyPercent;
+
+    BenchmarkContext context;
+    PlatformTransactionManager transactionManager;
+    EntityManager em;
+
+    TransactionStatus tx;
+    List<Member> loaded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("decorator.datasource.enabled=false");
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        em = context.entityManager();
+
+        context.transactionTemplate().executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 0; i < members; i++) {
+                em.persist(new Member("member" + i, i % 60, teamA));
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void begin() {
+        tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        loaded = load();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        transactionManager.rollback(tx);
+    }
+
+    @Benchmark
+    public int flush() {
+        int step = Math.max(1, 100 / dirtyPercent);
+        for (int i = 0; i < loaded.size(); i += step) {
+            Member member = loaded.get(i);
+            member.setAge(member.getAge() + 1);
+        }
+        em.flush();
+        return loaded.size();
+    }
+
+    @Benchmark
+    public List<Member> reload() {
+        em.clear();
+        return load();
+    }
+
+    private List<Member> load() {
+        return em.createQuery("select m from Member m", Member.class).getResultList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.study.querydsl.bench;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쿼리 생명주기 단계별 시간, 할당량 측정 (-prof gc 의 gc.alloc.rate.norm 참고)
+ *
+ * build     : Q타입 표현식 트리 + JPAQuery 구성
+ * serialize : JPQL 직렬화
+ * parse       : 하이버네이트 HQL 해석 (쿼리 플랜 캐시를 끈 별도 컨텍스트에서 매번 해석)
+ * parseCached : 쿼리 플랜 캐시 적중 시 createQuery 비용
+ * fetch     : 트랜잭션 + 위 단계 + SQL 실행 + 결과 하이드레이션 (p6spy 포함 여부는 파라미터)
+ *
+ * fetch 에서 앞 단계를 뺀 값이 실행, 하이드레이션, p6spy 의 몫이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryLifecycleBenchmark {
+
+    @Param({"JOIN", "GROUP", "SUBQUERY", "CASE", "CONCAT"})
+    QueryShape shape;
+
+    @Param({"true", "false"})
+    boolean p6spy;
+
+    BenchmarkContext context;
+    BenchmarkContext parseContext;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate transactionTemplate;
+    EntityManager parseEm;
+    EntityManager cachedParseEm;
+
+    JPAQuery<?> prebuilt;
+    String jpql;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("decorator.datasource.enabled=" + p6spy);
+        context.seed();
+
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        transactionTemplate = context.transactionTemplate();
+        cachedParseEm = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+        // 플랜 캐시는 SessionFactory 단위 설정이므로 해석만 재는 컨텍스트를 따로 띄운다. (데이터 불필요)
+        parseContext = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:mem:bench-parse;DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.query.plan_cache_enabled=false",
+                "decorator.datasource.enabled=" + p6spy);
+        parseEm = parseContext.getBean(EntityManagerFactory.class).createEntityManager();
+
+        prebuilt = shape.build(queryFactory);
+        jpql = prebuilt.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parseEm.close();
+        cachedParseEm.close();
+        parseContext.close();
+        context.close();
+    }
+
+    @Benchmark
+    public JPAQuery<?> build() {
+        return shape.build(queryFactory);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return prebuilt.toString();
+    }
+
+    @Benchmark
+    public Object parse() {
+        return parseEm.createQuery(jpql);
+    }
+
+    @Benchmark
+    public Object parseCached() {
+        return cachedParseEm.createQuery(jpql);
+    }
+
+    @Benchmark
+    public List<?> fetch() {
+        return transactionTemplate.execute(status -> shape.build(queryFactory).fetch());
+    }
+}
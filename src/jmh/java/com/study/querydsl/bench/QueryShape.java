@@ -0,0 +1,69 @@
+package com.study.querydsl.bench;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.QMember;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+/**
+ * QuerydslBasicTest 의 대표 쿼리 형태
+ */
+public enum QueryShape {
+
+    JOIN {
+        @Override
+        public JPAQuery<?> build(JPAQueryFactory queryFactory) {
+            return queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team)
+                    .where(team.name.eq("teamA"));
+        }
+    },
+    GROUP {
+        @Override
+        public JPAQuery<?> build(JPAQueryFactory queryFactory) {
+            return queryFactory
+                    .select(team.name, member.age.avg())
+                    .from(member)
+                    .join(member.team, team)
+                    .groupBy(team.name);
+        }
+    },
+    SUBQUERY {
+        @Override
+        public JPAQuery<?> build(JPAQueryFactory queryFactory) {
+            QMember memberSub = new QMember("memberSub");
+            return queryFactory
+                    .selectFrom(member)
+                    .where(member.age.eq(
+                            JPAExpressions
+                                    .select(memberSub.age.max())
+                                    .from(memberSub)));
+        }
+    },
+    CASE {
+        @Override
+        public JPAQuery<?> build(JPAQueryFactory queryFactory) {
+            return queryFactory
+                    .select(member.age
+                            .when(10).then("열살")
+                            .when(20).then("스무살")
+                            .otherwise("기타"))
+                    .from(member);
+        }
+    },
+    CONCAT {
+        @Override
+        public JPAQuery<?> build(JPAQueryFactory queryFactory) {
+            return queryFactory
+                    .select(member.username.concat("_").concat(member.age.stringValue()))
+                    .from(member)
+                    .where(member.username.eq("member1"));
+        }
+    };
+
+    public abstract JPAQuery<?> build(JPAQueryFactory queryFactory);
+}
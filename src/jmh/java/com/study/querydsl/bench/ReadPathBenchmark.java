@@ -0,0 +1,77 @@
+package com.study.querydsl.bench;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.MemberDto;
+import com.study.querydsl.dto.QMemberDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.sql.MemberSqlRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+/**
+ * MemberDto 조회 : querydsl-jpa(하이버네이트) vs querydsl-sql(JDBC)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    @Param({"10", "1000"})
+    int members;
+
+    BenchmarkContext context;
+    JPAQueryFactory queryFactory;
+    MemberSqlRepository memberSqlRepository;
+    TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("decorator.datasource.enabled=false");
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        memberSqlRepository = context.getBean(MemberSqlRepository.class);
+
+        readOnly = new TransactionTemplate(context.transactionTemplate().getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        EntityManager em = context.entityManager();
+        context.transactionTemplate().executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 0; i < members; i++) {
+                em.persist(new Member("member" + i, i % 60, teamA));
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> jpa() {
+        return readOnly.execute(status -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq("teamA"), member.age.goe(0))
+                .orderBy(member.id.asc())
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> sql() {
+        return readOnly.execute(status -> memberSqlRepository.findMemberDtos("teamA", 0));
+    }
+}
@@ -0,0 +1,113 @@
+package com.study.querydsl.archive;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+
+/**
+ * 오래 활동이 없는 회원을 member_archive 로 옮긴다.
+ *
+ * 배치마다 트랜잭션을 나눠 잠금과 언두 로그를 작게 유지한다.
+ * 1. last_active_at 이 기준보다 오래된 회원 id 를 배치 크기만큼 잠가서 고른다. (idx_member_last_active_at)
+ * 2. member_archive 로 복사하고 member 에서 지운다.
+ * 3. 벌크 변경(ARCHIVE)으로 알린다. (아웃박스, team_stats, 이름 색인, 메모리 스냅샷)
+ *
+ * <pre>
+ * querydsl.archive.inactive-after: 365d
+ * querydsl.archive.batch-size: 500
+ * querydsl.archive.cron: 0 30 3 * * *
+ * </pre>
+ */
+@Slf4j
+@Component
+public class MemberArchiver {
+
+    private static final String COPY_SQL =
+            "insert into member_archive (member_id, age, team_id, username, username_norm, last_active_at, archived_at)" +
+            " select member_id, age, team_id, username, username_norm, last_active_at, :archivedAt" +
+            " from member where member_id in (:ids)";
+
+    private static final String DELETE_MEMBERS_SQL = "delete from member where member_id in (:ids)";
+
+    private final JPAQueryFactory queryFactory;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkOperations bulkOperations;
+    private final Duration inactiveAfter;
+    private final int batchSize;
+
+    public MemberArchiver(JPAQueryFactory queryFactory,
+                          NamedParameterJdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          BulkOperations bulkOperations,
+                          @Value("${querydsl.archive.inactive-after:365d}") Duration inactiveAfter,
+                          @Value("${querydsl.archive.batch-size:500}") int batchSize) {
+        this.queryFactory = queryFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkOperations = bulkOperations;
+        this.inactiveAfter = inactiveAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${querydsl.archive.cron:0 30 3 * * *}")
+    public long archive() {
+        return archiveInactiveBefore(LocalDateTime.now().minus(inactiveAfter));
+    }
+
+    /**
+     * @return 옮긴 회원 수
+     */
+    public long archiveInactiveBefore(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        log.info("members archived. cutoff = {}, members = {}, {} ms", cutoff, total, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = queryFactory
+                .select(member.id)
+                .from(member)
+                .where(member.lastActiveAt.lt(cutoff))
+                .orderBy(member.lastActiveAt.asc(), member.id.asc())
+                .limit(batchSize)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        BulkChange change = new BulkChange(Member.class, BulkChange.Kind.ARCHIVE, ids);
+        return (int) bulkOperations.apply(change, () -> {
+            jdbcTemplate.update(COPY_SQL, params);
+            return jdbcTemplate.update(DELETE_MEMBERS_SQL, params);
+        });
+    }
+}
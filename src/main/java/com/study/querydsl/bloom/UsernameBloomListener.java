@@ -0,0 +1,60 @@
+package com.study.querydsl.bloom;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkChangeListener;
+import com.study.querydsl.event.BulkOperations;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저장, 이름 변경된 회원 이름을 Bloom filter 에 추가한다.
+ * 벌크 수정은 대상 회원의 현재 이름을 다시 읽어 추가한다.
+ * 커밋 전에 추가하므로 롤백된 이름은 오탐으로만 남는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameBloomListener implements PostInsertEventListener, PostUpdateEventListener, BulkChangeListener {
+
+    private final UsernameExistenceService usernameExistenceService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            usernameExistenceService.add(member.getUsername());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            usernameExistenceService.add(member.getUsername());
+        }
+    }
+
+    @Override
+    public void onBulkChange(BulkChange change) {
+        if (change.entityType() != Member.class || change.kind() != BulkChange.Kind.UPDATE) {
+            return;
+        }
+        for (List<Long> chunk : BulkOperations.chunks(change.ids())) {
+            jdbcTemplate.queryForList("select username from member where member_id in (:ids)", Map.of("ids", chunk), String.class)
+                    .forEach(usernameExistenceService::add);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
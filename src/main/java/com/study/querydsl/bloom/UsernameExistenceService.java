@@ -0,0 +1,186 @@
+package com.study.querydsl.bloom;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QMemberArchive.memberArchive;
+
+/**
+ * 회원 이름 존재 여부 확인
+ *
+ * Bloom filter 가 "없음"이라고 하면 DB 를 조회하지 않는다. "있을 수 있음"일 때만 DB 로 확인한다.
+ * 보관된 회원(member_archive)의 이름도 사용 중으로 본다. (보관 중인 이름으로 가입할 수 없다.)
+ * 필터는 기동 시 member, member_archive 테이블을 스트리밍으로 읽어 만들고, 이후에는 Member 저장 이벤트와 벌크 변경으로 추가된다.
+ * 삭제, 이름 변경 전 값은 필터에서 빠지지 않으므로 오탐만 늘어나며 미탐(있는데 없다고 답함)은 없다.
+ *
+ * 재구성 중 미탐 방지
+ * - 커밋 전에 추가된 이름은 트랜잭션이 끝날 때까지 inFlight 에 남는다.
+ * - 재구성은 building 을 먼저 걸고 inFlight 를 복사한 뒤 스캔한다. 스캔이 못 본(아직 커밋 안 된) 이름은
+ *   복사본이나 building 중 한 곳에 반드시 들어 있으므로 교체 전에 새 필터에 합친다.
+ * - JDBC 로 직접 적재한 데이터는 이벤트가 없으므로 적재 후 {@link #rebuild()} 를 호출해야 한다.
+ *
+ * 메트릭
+ * - username.exists.checks{result=negative|positive|false_positive}
+ * - username.exists.false_positive_rate : DB 확인 중 실제로 없던 비율
+ * - username.bloom.expected_fpp : 필터 채움 정도로 계산한 오탐률
+ */
+@Slf4j
+@Service
+public class UsernameExistenceService {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate readOnly;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private volatile BloomFilter filter;
+    // 재구성 중 추가된 이름은 새 필터에도 넣는다.
+    private volatile BloomFilter building;
+    // 커밋 전 트랜잭션이 추가한 이름 (이름 -> 트랜잭션 수)
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    public UsernameExistenceService(JPAQueryFactory queryFactory,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${querydsl.username-bloom.expected-insertions:1000000}") long expectedInsertions,
+                                    @Value("${querydsl.username-bloom.fpp:0.01}") double fpp) {
+        this.queryFactory = queryFactory;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+
+        this.negatives = meterRegistry.counter("username.exists.checks", "result", "negative");
+        this.positives = meterRegistry.counter("username.exists.checks", "result", "positive");
+        this.falsePositives = meterRegistry.counter("username.exists.checks", "result", "false_positive");
+        Gauge.builder("username.exists.false_positive_rate", this, UsernameExistenceService::falsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("username.bloom.expected_fpp", this, s -> s.filter != null ? s.filter.expectedFpp() : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean exists(String username) {
+        if (username == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(username)) {
+            negatives.increment();
+            return false;
+        }
+
+        boolean found = readOnly.execute(status -> queryFactory
+                .selectOne()
+                .from(member)
+                .where(member.username.eq(username))
+                .fetchFirst() != null
+                || queryFactory
+                .selectOne()
+                .from(memberArchive)
+                .where(memberArchive.username.eq(username))
+                .fetchFirst() != null);
+
+        // 필터가 아직 없을 때의 조회는 오탐률 계산에서 뺀다.
+        if (current != null) {
+            (found ? positives : falsePositives).increment();
+        }
+        return found;
+    }
+
+    public void add(String username) {
+        if (username == null) {
+            return;
+        }
+        // building 을 읽기 전에 먼저 등록해야 재구성 시작 시점과 엇갈려도 빠지지 않는다.
+        trackInFlight(username);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(username);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        BloomFilter next = BloomFilter.create(expectedInsertions, fpp);
+        building = next;
+        List<String> uncommitted = new ArrayList<>(inFlight.keySet());
+        try {
+            long count = readOnly.execute(status -> {
+                long[] scanned = {0};
+                try (Stream<String> usernames = queryFactory.select(member.username).from(member).stream();
+                     Stream<String> archived = queryFactory.select(memberArchive.username).from(memberArchive).stream()) {
+                    Stream.concat(usernames, archived).forEach(username -> {
+                        if (username != null) {
+                            next.put(username);
+                        }
+                        scanned[0]++;
+                    });
+                }
+                return scanned[0];
+            });
+            uncommitted.forEach(next::put);
+            filter = next;
+            log.info("username bloom filter built. members = {}, bits = {}, hashes = {}, {} ms",
+                    count, next.bitSize(), next.hashCount(), System.currentTimeMillis() - start);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * 트랜잭션당 동기화 하나를 등록하고, 끝나면 그 트랜잭션이 추가한 이름을 inFlight 에서 뺀다.
+     */
+    @SuppressWarnings("unchecked")
+    private void trackInFlight(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<String> added = (List<String>) TransactionSynchronizationManager.getResource(inFlight);
+        if (added == null) {
+            List<String> names = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(inFlight, names);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(inFlight);
+                    names.forEach(name -> inFlight.computeIfPresent(name, (key, count) -> count > 1 ? count - 1 : null));
+                }
+            });
+            added = names;
+        }
+        added.add(username);
+        inFlight.merge(username, 1, Integer::sum);
+    }
+
+    public double falsePositiveRate() {
+        double checked = positives.count() + falsePositives.count();
+        return checked > 0 ? falsePositives.count() / checked : 0;
+    }
+}
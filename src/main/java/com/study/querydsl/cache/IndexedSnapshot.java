@@ -0,0 +1,74 @@
+package com.study.querydsl.cache;
+
+import com.querydsl.collections.CollQueryFactory;
+import com.querydsl.core.types.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 불변 스냅샷 + 해시 색인
+ *
+ * Querydsl Predicate 를 querydsl-collections 로 평가한다.
+ * 최상위 AND 조건 중 색인된 경로의 eq(상수) 조건이 있으면 해당 버킷만 평가하고, 없으면 전체를 평가한다.
+ */
+public class IndexedSnapshot<T> {
+
+    private final EntityPath<T> root;
+    private final List<T> rows;
+    private final Map<Path<?>, Map<Object, List<T>>> indexes = new HashMap<>();
+
+    public IndexedSnapshot(EntityPath<T> root, List<T> rows, Map<Path<?>, Function<T, ?>> indexedPaths) {
+        this.root = root;
+        this.rows = List.copyOf(rows);
+        indexedPaths.forEach((path, getter) -> indexes.put(path, index(this.rows, getter)));
+    }
+
+    public List<T> rows() {
+        return rows;
+    }
+
+    public List<T> query(Predicate predicate) {
+        List<T> source = candidates(predicate);
+        if (predicate == null) {
+            return source;
+        }
+        return CollQueryFactory.from(root, source).where(predicate).fetch();
+    }
+
+    private List<T> candidates(Predicate predicate) {
+        if (!(predicate instanceof Operation<?> operation)) {
+            return rows;
+        }
+        if (operation.getOperator() == Ops.AND) {
+            for (Expression<?> arg : operation.getArgs()) {
+                if (arg instanceof Predicate conjunct) {
+                    List<T> bucket = candidates(conjunct);
+                    if (bucket != rows) {
+                        return bucket;
+                    }
+                }
+            }
+            return rows;
+        }
+        if (operation.getOperator() == Ops.EQ
+                && operation.getArg(0) instanceof Path<?> path
+                && operation.getArg(1) instanceof Constant<?> constant
+                && indexes.containsKey(path)) {
+            return indexes.get(path).getOrDefault(constant.getConstant(), List.of());
+        }
+        return rows;
+    }
+
+    private static <T> Map<Object, List<T>> index(List<T> rows, Function<T, ?> getter) {
+        Map<Object, List<T>> index = new HashMap<>();
+        for (T row : rows) {
+            Object key = getter.apply(row);
+            if (key != null) {
+                index.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            }
+        }
+        index.replaceAll((key, bucket) -> List.copyOf(bucket));
+        return index;
+    }
+}
@@ -0,0 +1,44 @@
+package com.study.querydsl.cache;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+/**
+ * 같은 Predicate 를 DB 또는 메모리 스냅샷에서 실행한다.
+ * Predicate 는 기본 별칭(QMember.member, member.team)으로 작성해야 색인을 탈 수 있다.
+ * 회원 스냅샷이 꺼져 있거나 한도를 넘으면 MEMORY 도 DB 에서 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberFinder {
+
+    public enum Backend { DATABASE, MEMORY }
+
+    private final JPAQueryFactory queryFactory;
+    private final MemberSnapshotCache memberSnapshotCache;
+
+    @Transactional(readOnly = true)
+    public List<Member> findMembers(Predicate predicate, Backend backend) {
+        if (backend == Backend.MEMORY) {
+            Optional<List<Member>> cached = memberSnapshotCache.findMembers(predicate);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        return queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(predicate)
+                .fetch();
+    }
+}
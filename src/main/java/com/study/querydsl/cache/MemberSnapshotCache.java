@@ -0,0 +1,176 @@
+package com.study.querydsl.cache;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+/**
+ * Team / Member 메모리 스냅샷
+ *
+ * 처음 조회할 때 읽고, 변경이 커밋되면 바뀐 쪽(Team / Member)만 다음 조회 시점에 다시 읽는다.
+ * 주기 작업은 만료 표시만 하므로 조회가 없으면 DB 를 읽지 않는다.
+ *
+ * Team 은 항상 캐시한다. Member 는 querydsl.snapshot.members.enabled=true 일 때만 캐시하며,
+ * 회원 수가 querydsl.snapshot.members.max-rows 를 넘으면 스냅샷을 만들지 않고 DB 로 조회하게 한다. ({@link #findMembers})
+ *
+ * 만료 표시마다 세대를 올리고, 읽는 동안 세대가 바뀌었으면(그 사이 커밋된 변경이 있으면) 읽은 스냅샷을 두지 않는다.
+ *
+ * 스냅샷 엔티티는 준영속 상태이며 회원의 팀은 페치 조인으로 채워져 있다. (Team.members 는 초기화되지 않음)
+ * 스냅샷 엔티티를 수정하지 않는다.
+ */
+@Slf4j
+@Component
+public class MemberSnapshotCache {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean membersEnabled;
+    private final long maxMembers;
+
+    private final AtomicReference<Slot<IndexedSnapshot<Team>>> teams = new AtomicReference<>(Slot.stale(0));
+    // 한도를 넘어 캐시하지 않기로 한 경우 Optional.empty()
+    private final AtomicReference<Slot<Optional<IndexedSnapshot<Member>>>> members = new AtomicReference<>(Slot.stale(0));
+
+    public MemberSnapshotCache(JPAQueryFactory queryFactory,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${querydsl.snapshot.members.enabled:false}") boolean membersEnabled,
+                               @Value("${querydsl.snapshot.members.max-rows:10000}") long maxMembers) {
+        this.queryFactory = queryFactory;
+        // 호출한 쪽 영속성 컨텍스트와 섞이지 않도록 항상 새 트랜잭션에서 읽는다.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.membersEnabled = membersEnabled;
+        this.maxMembers = maxMembers;
+    }
+
+    /**
+     * @return 회원 스냅샷이 없으면(비활성, 한도 초과) Optional.empty() 이며 호출한 쪽이 DB 로 조회한다.
+     */
+    public Optional<List<Member>> findMembers(Predicate predicate) {
+        if (!membersEnabled) {
+            return Optional.empty();
+        }
+        return currentMembers().map(snapshot -> snapshot.query(predicate));
+    }
+
+    public List<Team> findTeams(Predicate predicate) {
+        return currentTeams().query(predicate);
+    }
+
+    public void markStale() {
+        markStale(List.of(Team.class, Member.class));
+    }
+
+    /**
+     * 바뀐 엔티티 종류만 만료시킨다. 회원 스냅샷은 팀 이름으로도 색인하므로 Team 변경에도 만료된다.
+     */
+    public void markStale(Collection<Class<?>> entityTypes) {
+        boolean team = entityTypes.stream().anyMatch(Team.class::isAssignableFrom);
+        boolean member = team || entityTypes.stream().anyMatch(Member.class::isAssignableFrom);
+        if (team) {
+            teams.updateAndGet(Slot::next);
+        }
+        if (member) {
+            members.updateAndGet(Slot::next);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${querydsl.snapshot.refresh-interval:60000}")
+    public void expire() {
+        markStale();
+    }
+
+    private IndexedSnapshot<Team> currentTeams() {
+        return current(teams, this::loadTeams);
+    }
+
+    private Optional<IndexedSnapshot<Member>> currentMembers() {
+        return current(members, this::loadMembers);
+    }
+
+    private <T> T current(AtomicReference<Slot<T>> ref, Supplier<T> loader) {
+        Slot<T> slot = ref.get();
+        if (slot.snapshot() != null) {
+            return slot.snapshot();
+        }
+        synchronized (this) {
+            slot = ref.get();
+            if (slot.snapshot() != null) {
+                return slot.snapshot();
+            }
+            T loaded = transactionTemplate.execute(status -> loader.get());
+            // 읽는 동안 만료되었으면(세대가 바뀌었으면) 두지 않는다. 다음 조회가 다시 읽는다.
+            ref.compareAndSet(slot, new Slot<>(slot.generation(), loaded));
+            return loaded;
+        }
+    }
+
+    IndexedSnapshot<Team> loadTeams() {
+        List<Team> rows = queryFactory.selectFrom(team).fetch();
+
+        Map<Path<?>, Function<Team, ?>> indexes = new LinkedHashMap<>();
+        indexes.put(team.id, Team::getId);
+        indexes.put(team.name, Team::getName);
+        return new IndexedSnapshot<>(team, rows, indexes);
+    }
+
+    Optional<IndexedSnapshot<Member>> loadMembers() {
+        long start = System.currentTimeMillis();
+        // 한도 + 1 건까지만 읽어 초과 여부를 판단한다.
+        List<Member> rows = queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .orderBy(member.id.asc())
+                .limit(maxMembers + 1)
+                .fetch();
+        if (rows.size() > maxMembers) {
+            log.warn("member snapshot skipped. members > {} (querydsl.snapshot.members.max-rows)", maxMembers);
+            return Optional.empty();
+        }
+
+        Map<Path<?>, Function<Member, ?>> indexes = new LinkedHashMap<>();
+        indexes.put(member.id, Member::getId);
+        indexes.put(member.username, Member::getUsername);
+        indexes.put(member.age, Member::getAge);
+        indexes.put(member.team.name, m -> m.getTeam() != null ? m.getTeam().getName() : null);
+
+        log.debug("member snapshot loaded. members = {}, {} ms", rows.size(), System.currentTimeMillis() - start);
+        return Optional.of(new IndexedSnapshot<>(member, rows, indexes));
+    }
+
+    /**
+     * @param snapshot null 이면 만료
+     */
+    private record Slot<T>(long generation, T snapshot) {
+
+        static <T> Slot<T> stale(long generation) {
+            return new Slot<>(generation, null);
+        }
+
+        Slot<T> next() {
+            return stale(generation + 1);
+        }
+    }
+}
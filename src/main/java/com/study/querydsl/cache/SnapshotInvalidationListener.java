@@ -0,0 +1,88 @@
+package com.study.querydsl.cache;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkChangeListener;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Member / Team 변경(벌크 연산 포함)이 커밋되면 스냅샷을 무효화한다.
+ * (커밋 전에 무효화하면 다시 읽은 스냅샷에 변경 전 데이터가 남는다.)
+ * 트랜잭션마다 바뀐 엔티티 종류를 모아 커밋 후 한 번만 무효화한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SnapshotInvalidationListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        BulkChangeListener {
+
+    private final MemberSnapshotCache memberSnapshotCache;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onBulkChange(BulkChange change) {
+        invalidate(change.entityType());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidate(Object entity) {
+        invalidate(entity.getClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invalidate(Class<?> entityType) {
+        if (!Member.class.isAssignableFrom(entityType) && !Team.class.isAssignableFrom(entityType)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            memberSnapshotCache.markStale(List.of(entityType));
+            return;
+        }
+        // 트랜잭션당 동기화 하나만 등록하고 바뀐 엔티티 종류를 모은다.
+        Set<Class<?>> dirty = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if (dirty == null) {
+            Set<Class<?>> types = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, types);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    memberSnapshotCache.markStale(types);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SnapshotInvalidationListener.this);
+                }
+            });
+            dirty = types;
+        }
+        dirty.add(entityType);
+    }
+}
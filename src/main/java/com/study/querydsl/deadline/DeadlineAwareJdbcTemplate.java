@@ -0,0 +1,24 @@
+package com.study.querydsl.deadline;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 요청 마감 시각이 있으면 남은 시간을 statement 타임아웃으로 건다. ({@link QueryDeadlines})
+ * NamedParameterJdbcTemplate 도 이 JdbcTemplate 을 감싸므로 함께 적용된다.
+ */
+public class DeadlineAwareJdbcTemplate extends JdbcTemplate {
+
+    public DeadlineAwareJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        QueryDeadlines.apply(stmt);
+    }
+}
@@ -0,0 +1,16 @@
+package com.study.querydsl.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * 마감이 지난 요청은 트랜잭션(커넥션)을 시작하지 않는다.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        DeadlineContext.checkNotExpired("begin transaction");
+        super.doBegin(transaction, definition);
+    }
+}
@@ -0,0 +1,35 @@
+package com.study.querydsl.deadline;
+
+/**
+ * 현재 스레드(요청)의 마감 시각
+ * 비동기로 넘어간 작업에는 전파되지 않는다.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 마감이 지났으면 예외를 던진다. 마감이 없으면 아무 일도 하지 않는다.
+     */
+    public static void checkNotExpired(String operation) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(operation + ": request deadline exceeded");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.study.querydsl.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 요청 헤더(X-Request-Timeout-Ms, 남은 처리 시간)나 기본 예산으로 요청의 마감 시각을 정한다.
+ * 이미 예산이 없는 요청은 DB 에 가지 않고 바로 504 로 응답한다.
+ */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final Duration defaultBudget;
+
+    public DeadlineFilter(@Value("${querydsl.deadline.default-budget:5s}") Duration defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration budget = budget(request);
+        if (budget.isZero() || budget.isNegative()) {
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "request deadline exceeded");
+            return;
+        }
+
+        DeadlineContext.set(Deadline.after(budget));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+        }
+    }
+
+    private Duration budget(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null) {
+            return defaultBudget;
+        }
+        try {
+            return Duration.ofMillis(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return defaultBudget;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.study.querydsl.deadline;
+
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * querydsl-sql 쿼리, DML 에 남은 처리 시간을 statement 타임아웃으로 건다. ({@link QueryDeadlines})
+ */
+public class DeadlineSQLListener extends SQLBaseListener {
+
+    @Override
+    public void preExecute(SQLListenerContext context) {
+        try {
+            for (PreparedStatement statement : context.getPreparedStatements()) {
+                QueryDeadlines.apply(statement);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("쿼리 타임아웃을 설정할 수 없습니다.", e);
+        }
+    }
+}
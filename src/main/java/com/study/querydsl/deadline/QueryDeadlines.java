@@ -0,0 +1,74 @@
+package com.study.querydsl.deadline;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 쿼리에 남은 처리 시간을 타임아웃으로 건다.
+ * JDBC Statement.setQueryTimeout 은 초 단위이므로 초 단위로 내림한다. (최소 1초)
+ * 마감을 넘기지 않도록 내림하므로 1초 미만이 남았을 때만 최대 1초까지 마감을 넘을 수 있다.
+ * 타임아웃이 지나면 드라이버가 실행 중인 statement 를 취소한다.
+ *
+ * 적용 경로
+ * - JPAQuery : {@link com.study.querydsl.query.ExtendedJPAQuery}
+ * - 벌크 update / delete : {@link com.study.querydsl.event.BulkOperations} (세션 기본 타임아웃)
+ * - JdbcTemplate, NamedParameterJdbcTemplate : {@link DeadlineAwareJdbcTemplate}
+ * - SQLQueryFactory : {@link DeadlineSQLListener}
+ */
+public final class QueryDeadlines {
+
+    public static final String TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
+    private QueryDeadlines() {
+    }
+
+    /**
+     * 마감이 없으면 0, 마감이 지났으면 예외
+     */
+    public static int remainingSeconds() {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return 0;
+        }
+        long remainingMillis = deadline.remaining().toMillis();
+        if (remainingMillis <= 0) {
+            throw new DeadlineExceededException("query: request deadline exceeded");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, remainingMillis / 1000));
+    }
+
+    public static void apply(Query query) {
+        int seconds = remainingSeconds();
+        if (seconds > 0) {
+            query.setHint(TIMEOUT_HINT, toMillis(seconds));
+        }
+    }
+
+    /**
+     * 이 EntityManager(세션)가 이후에 만드는 쿼리의 기본 타임아웃
+     * Querydsl update / delete 절처럼 Query 를 직접 받을 수 없는 경우에 실행 직전 호출한다.
+     */
+    public static void apply(EntityManager entityManager) {
+        int seconds = remainingSeconds();
+        if (seconds > 0) {
+            entityManager.setProperty(TIMEOUT_HINT, toMillis(seconds));
+        }
+    }
+
+    /**
+     * 이미 더 짧은 타임아웃이 있으면 그대로 둔다.
+     */
+    public static void apply(Statement statement) throws SQLException {
+        int seconds = remainingSeconds();
+        if (seconds > 0 && (statement.getQueryTimeout() == 0 || statement.getQueryTimeout() > seconds)) {
+            statement.setQueryTimeout(seconds);
+        }
+    }
+
+    private static int toMillis(int seconds) {
+        return (int) Math.min(Integer.MAX_VALUE, seconds * 1000L);
+    }
+}
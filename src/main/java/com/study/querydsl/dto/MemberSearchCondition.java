@@ -0,0 +1,15 @@
+package com.study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberSearchCondition {
+
+    private String username;
+    private String teamName;
+    private Integer ageGoe;
+    private Integer ageLoe;
+
+    // 보관된 회원(member_archive)도 함께 조회
+    private boolean includeArchived;
+}
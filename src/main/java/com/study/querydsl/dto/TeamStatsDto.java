@@ -0,0 +1,21 @@
+package com.study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class TeamStatsDto {
+
+    private String teamName;
+    private long memberCount;
+    private double ageAvg;
+
+    @QueryProjection
+    public TeamStatsDto(String teamName, long memberCount, double ageAvg) {
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.ageAvg = ageAvg;
+    }
+}
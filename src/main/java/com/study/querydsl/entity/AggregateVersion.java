@@ -0,0 +1,23 @@
+package com.study.querydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 애그리거트(member, team 테이블)별 변경 버전
+ * 쓰기가 커밋되면 AggregateVersionListener 가 올린다. (읽기 전용)
+ * 초기 행은 import.sql(ddl-auto), V5 마이그레이션(fast 프로파일)에서 만든다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"aggregate", "version"})
+@Table(name = "aggregate_version")
+public class AggregateVersion {
+
+    @Id
+    @Column(length = 32)
+    private String aggregate;
+
+    private long version;
+}
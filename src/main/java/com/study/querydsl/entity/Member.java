@@ -2,11 +2,21 @@ package com.study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GeneratedColumn;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 
 @Entity
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"} )
+@Table(indexes = {
+        @Index(name = "idx_member_username_norm", columnList = "username_norm"),
+        @Index(name = "idx_member_last_active_at", columnList = "last_active_at")
+})
 public class Member {
 
     @Id @GeneratedValue
@@ -15,8 +25,20 @@ public class Member {
 
     private String username;
 
+    // 대소문자, 앞뒤 공백을 무시한 검색용 이름 (인덱스 대상)
+    // DB 생성 컬럼이므로 JPQL, JDBC, 벌크 연산으로 이름을 바꿔도 함께 바뀐다. (저장, 수정 후 다시 읽는다.)
+    @Setter(AccessLevel.NONE)
+    @GeneratedColumn("lower(trim(username))")
+    @Column(name = "username_norm")
+    private String usernameNormalized;
+
     private int age;
 
+    // 마지막 활동 시각 (오래 활동이 없으면 member_archive 로 옮겨진다.)
+    // 가입(저장), 회원 정보 변경 시 갱신된다. 인증이 없어 조회는 활동으로 보지 않는다.
+    @Column(name = "last_active_at", nullable = false)
+    private LocalDateTime lastActiveAt;
+
     // 연관 관계
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
@@ -41,6 +63,30 @@ public class Member {
 
     private void changeTeam(Team team) {
         this.team = team;
-        team.getMembers().add(this);
+        // 바이트코드 향상(연관관계 관리)이 켜져 있으면 위 대입에서 이미 추가되므로 중복 확인 후 추가한다.
+        // 중복 확인은 컬렉션이 로딩된 경우에만 한다. (contains 가 지연 로딩된 컬렉션 전체를 읽지 않도록)
+        List<Member> members = team.getMembers();
+        if (!Hibernate.isInitialized(members) || !members.contains(this)) {
+            members.add(this);
+        }
+    }
+
+    @PrePersist
+    private void prePersist() {
+        if (lastActiveAt == null) {
+            lastActiveAt = LocalDateTime.now();
+        }
+    }
+
+    @PreUpdate
+    private void preUpdate() {
+        this.lastActiveAt = LocalDateTime.now();
+    }
+
+    /**
+     * username_norm 과 같은 규칙 (lower(trim(username)))
+     */
+    public static String normalize(String username) {
+        return username != null ? username.trim().toLowerCase(Locale.ROOT) : null;
     }
 }
@@ -0,0 +1,41 @@
+package com.study.querydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 보관된(cold) 회원
+ * 오래 활동이 없는 회원을 member 테이블에서 옮겨 member 테이블과 인덱스를 작게 유지한다.
+ * 조회 전용이며 MemberArchiver 가 JDBC 로 옮긴다. member_id 는 원래 값을 그대로 쓴다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "username", "age"})
+@Table(name = "member_archive",
+        indexes = @Index(name = "idx_member_archive_username_norm", columnList = "username_norm"))
+public class MemberArchive {
+
+    @Id
+    @Column(name = "member_id")
+    private Long id;
+
+    private String username;
+
+    @Column(name = "username_norm")
+    private String usernameNormalized;
+
+    private int age;
+
+    // 팀은 삭제될 수 있으므로 연관관계 없이 id 만 남긴다.
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "last_active_at")
+    private LocalDateTime lastActiveAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
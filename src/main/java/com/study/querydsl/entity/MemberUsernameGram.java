@@ -0,0 +1,29 @@
+package com.study.querydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 회원 이름 n-gram 색인 (검색용 보조 테이블)
+ * like '%검색어%' 는 B-tree 인덱스를 쓰지 못하므로 trigram 단위로 쪼개 인덱스를 태운다.
+ * Member 변경 이벤트로 JDBC 를 통해 동기화된다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"memberId", "gram"})
+@Table(indexes = {
+        @Index(name = "idx_member_username_gram", columnList = "gram, member_id"),
+        @Index(name = "idx_member_username_gram_member", columnList = "member_id")
+})
+public class MemberUsernameGram {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(nullable = false, length = 3)
+    private String gram;
+}
@@ -0,0 +1,37 @@
+package com.study.querydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member / Team 변경 이벤트 아웃박스
+ * 변경과 같은 트랜잭션에서 JDBC 로 쌓이고, OutboxRelay 가 배치로 잠가(skip locked) 발행한 뒤 지운다.
+ * 애그리거트별 가장 오래된 이벤트를 찾는 데 idx_outbox_event_aggregate 를 쓴다.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_event_aggregate", columnList = "aggregate_type, aggregate_id, id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "aggregateType", "aggregateId", "eventType"})
+public class OutboxEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.study.querydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Synchronize;
+
+/**
+ * 팀별 회원 통계 (비정규화 테이블)
+ * Member 변경 이벤트로 증분 갱신되며, 값 변경은 JDBC 로만 이루어진다. (읽기 전용)
+ * member 테이블과 동기화 대상으로 지정해 조회 전에 대기 중인 Member 변경이 flush 되도록 한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "memberCount", "ageSum", "ageAvg"})
+@Synchronize("member")
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id")
+    private Team team;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private double ageAvg;
+}
@@ -0,0 +1,23 @@
+package com.study.querydsl.event;
+
+import java.util.List;
+
+/**
+ * 벌크 연산(update, delete 쿼리) 대상
+ * 실행 전에 대상 행의 id 를 잠그고 모아 두므로 리스너는 어떤 행이 바뀌는지 알 수 있다.
+ *
+ * @param entityType 대상 엔티티
+ * @param ids        대상 행의 id
+ */
+public record BulkChange(Class<?> entityType, Kind kind, List<Long> ids) {
+
+    public enum Kind {
+        UPDATE, DELETE,
+        // 삭제와 같지만 행은 보관 테이블로 옮겨졌다.
+        ARCHIVE
+    }
+
+    public BulkChange {
+        ids = List.copyOf(ids);
+    }
+}
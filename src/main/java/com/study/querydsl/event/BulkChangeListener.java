@@ -0,0 +1,20 @@
+package com.study.querydsl.event;
+
+/**
+ * 벌크 연산 리스너
+ * 벌크 연산은 하이버네이트 엔티티 이벤트가 발생하지 않으므로 {@link BulkOperations} 가 대신 알린다.
+ * 벌크 연산과 같은 트랜잭션 안에서 호출된다.
+ */
+public interface BulkChangeListener {
+
+    /**
+     * 실행 직전 (대상 행은 아직 변경 전 상태)
+     */
+    default void beforeBulkChange(BulkChange change) {
+    }
+
+    /**
+     * 실행 직후 (update 는 변경 후 상태, delete 는 이미 지워진 상태)
+     */
+    void onBulkChange(BulkChange change);
+}
@@ -0,0 +1,106 @@
+package com.study.querydsl.event;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import com.study.querydsl.deadline.QueryDeadlines;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * 벌크 연산 실행 전후로 {@link BulkChangeListener} 에 알린다.
+ *
+ * 조건에 맞는 행의 id 를 먼저 잠가서(select ... for update) 모은 뒤 그 id 로만 실행한다.
+ * 그래서 리스너가 받는 id 와 실제로 바뀐 행이 같다.
+ *
+ * <pre>
+ * bulkOperations.update(member, member.age.lt(28),
+ *         clause -> clause.set(member.age, member.age.add(1)));
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkOperations {
+
+    // in 절 하나에 넣는 id 수
+    static final int CHUNK_SIZE = 1000;
+
+    private final JPAQueryFactory queryFactory;
+    private final EntityManager entityManager;
+    private final ObjectProvider<BulkChangeListener> listeners;
+
+    public long update(EntityPath<?> entity, Predicate where, UnaryOperator<JPAUpdateClause> set) {
+        NumberPath<Long> id = idPath(entity);
+        BulkChange change = new BulkChange(entity.getType(), BulkChange.Kind.UPDATE, lockIds(entity, where));
+        return apply(change, () -> {
+            long rows = 0;
+            for (List<Long> chunk : chunks(change.ids())) {
+                // update / delete 절은 Query 를 노출하지 않으므로 세션 기본 타임아웃으로 마감 시각을 건다.
+                QueryDeadlines.apply(entityManager);
+                rows += set.apply(queryFactory.update(entity)).where(id.in(chunk)).execute();
+            }
+            return rows;
+        });
+    }
+
+    public long delete(EntityPath<?> entity, Predicate where) {
+        NumberPath<Long> id = idPath(entity);
+        BulkChange change = new BulkChange(entity.getType(), BulkChange.Kind.DELETE, lockIds(entity, where));
+        return apply(change, () -> {
+            long rows = 0;
+            for (List<Long> chunk : chunks(change.ids())) {
+                QueryDeadlines.apply(entityManager);
+                rows += queryFactory.delete(entity).where(id.in(chunk)).execute();
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * JDBC 등 Querydsl 밖에서 실행하는 벌크 연산을 리스너 호출로 감싼다.
+     * 대상 id 는 호출하는 쪽에서 미리 잠가 두어야 한다.
+     */
+    public long apply(BulkChange change, LongSupplier work) {
+        if (change.ids().isEmpty()) {
+            return 0;
+        }
+        listeners.orderedStream().forEach(l -> l.beforeBulkChange(change));
+        long rows = work.getAsLong();
+        listeners.orderedStream().forEach(l -> l.onBulkChange(change));
+        return rows;
+    }
+
+    public static List<List<Long>> chunks(List<Long> ids) {
+        int size = ids.size();
+        return IntStream.range(0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .mapToObj(i -> ids.subList(i * CHUNK_SIZE, Math.min(size, (i + 1) * CHUNK_SIZE)))
+                .toList();
+    }
+
+    private List<Long> lockIds(EntityPath<?> entity, Predicate where) {
+        NumberPath<Long> id = idPath(entity);
+        return queryFactory
+                .select(id)
+                .from(entity)
+                .where(where)
+                .orderBy(id.asc())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    // Member, Team 모두 식별자 속성 이름이 id 다.
+    private static NumberPath<Long> idPath(EntityPath<?> entity) {
+        return Expressions.numberPath(Long.class, entity, "id");
+    }
+}
@@ -0,0 +1,38 @@
+package com.study.querydsl.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 스프링 빈으로 등록된 하이버네이트 이벤트 리스너를 SessionFactory 에 등록한다.
+ * PostInsert / PostUpdate / PostDelete 리스너를 구현한 @Component 는 자동으로 등록된다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HibernateEventListenerConfig {
+
+    private final EntityManagerFactory emf;
+    private final ObjectProvider<PostInsertEventListener> insertListeners;
+    private final ObjectProvider<PostUpdateEventListener> updateListeners;
+    private final ObjectProvider<PostDeleteEventListener> deleteListeners;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        insertListeners.orderedStream().forEach(l -> registry.appendListeners(EventType.POST_INSERT, l));
+        updateListeners.orderedStream().forEach(l -> registry.appendListeners(EventType.POST_UPDATE, l));
+        deleteListeners.orderedStream().forEach(l -> registry.appendListeners(EventType.POST_DELETE, l));
+    }
+}
@@ -0,0 +1,145 @@
+package com.study.querydsl.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV 를 NIO 채널로 바로 쓰는 writer
+ * 문자/바이트 버퍼를 재사용하며 행 단위 문자열을 만들지 않는다. (정수 값은 자릿수를 직접 기록)
+ */
+class CsvChannelWriter {
+
+    private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+    private static final int BYTE_BUFFER_SIZE = 32 * 1024;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+    private final char[] digits = new char[20];
+
+    private boolean firstField = true;
+
+    CsvChannelWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    void field(Object value) throws IOException {
+        if (!firstField) {
+            put(',');
+        }
+        firstField = false;
+
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            putLong(((Number) value).longValue());
+            return;
+        }
+        putText(value.toString());
+    }
+
+    void endRow() throws IOException {
+        put('\n');
+        firstField = true;
+    }
+
+    /**
+     * 버퍼에 남은 내용을 채널로 내보낸다.
+     */
+    void close() throws IOException {
+        encode(true);
+        writeBytes();
+    }
+
+    private void putText(String text) throws IOException {
+        boolean quote = needsQuote(text);
+        if (quote) {
+            put('"');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        if (quote) {
+            put('"');
+        }
+    }
+
+    private static boolean needsQuote(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        // 앞뒤 공백은 CSV 를 읽는 쪽에서 잘려나갈 수 있으므로 감싼다.
+        return !text.isEmpty() && (text.charAt(0) == ' ' || text.charAt(text.length() - 1) == ' ');
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putText(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = pos; i < digits.length; i++) {
+            put(digits[i]);
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+                continue;
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            break;
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            encoder.reset();
+        }
+        // 버퍼 경계에서 잘린 surrogate 문자는 남겨둔다.
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
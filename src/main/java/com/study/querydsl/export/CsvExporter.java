@@ -0,0 +1,71 @@
+package com.study.querydsl.export;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Querydsl 프로젝션 결과를 CSV 로 스트리밍한다.
+ *
+ * 프로젝션을 Tuple(팩토리 표현식)이 아닌 Expressions.list 로 지정해 JPQL 의 select 절만 만들고,
+ * 하이버네이트 스크롤로 ResultSet 을 한 행씩 읽어 바로 채널에 기록한다.
+ * 엔티티나 Tuple 을 만들지 않으며 결과 전체를 메모리에 올리지 않는다.
+ * 트랜잭션 안에서 호출해야 한다.
+ */
+@Component
+public class CsvExporter {
+
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * @param from    프로젝션을 지정하지 않은 쿼리 (from, where, orderBy 등)
+     * @param channel 출력 채널 (닫지 않는다)
+     * @param columns 내보낼 컬럼
+     * @return 기록한 행 수 (헤더 제외)
+     */
+    public long export(JPAQuery<?> from, WritableByteChannel channel, SimpleExpression<?>... columns) {
+        JPAQuery<?> query = from.select(columns.length == 1 ? columns[0] : Expressions.list(columns));
+        Query<?> hibernateQuery = query.createQuery()
+                .unwrap(Query.class)
+                .setFetchSize(FETCH_SIZE)
+                .setReadOnly(true);
+
+        CsvChannelWriter writer = new CsvChannelWriter(channel);
+        long rows = 0;
+        try (ScrollableResults<?> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            writeHeader(writer, columns);
+            while (results.next()) {
+                Object row = results.get();
+                if (row instanceof Object[] values) {
+                    for (Object value : values) {
+                        writer.field(value);
+                    }
+                } else {
+                    writer.field(row);
+                }
+                writer.endRow();
+                rows++;
+            }
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static void writeHeader(CsvChannelWriter writer, SimpleExpression<?>[] columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            writer.field(columns[i] instanceof Path<?> path ? path.getMetadata().getName() : "col" + (i + 1));
+        }
+        writer.endRow();
+    }
+}
@@ -0,0 +1,34 @@
+package com.study.querydsl.export;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+
+/**
+ * 회원 데이터 추출
+ * 응답 길이를 정하지 않고 스트리밍하므로 chunked 로 전송된다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv; charset=UTF-8");
+
+    private final MemberExportService memberExportService;
+
+    @GetMapping("/export/members.csv")
+    public ResponseEntity<StreamingResponseBody> exportMembers(@RequestParam(required = false) Integer ageGoe) {
+        StreamingResponseBody body = out -> memberExportService.exportMembers(ageGoe, Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members.csv")
+                .contentType(TEXT_CSV)
+                .body(body);
+    }
+}
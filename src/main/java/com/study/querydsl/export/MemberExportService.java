@@ -0,0 +1,37 @@
+package com.study.querydsl.export;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.channels.WritableByteChannel;
+
+import static com.study.querydsl.entity.QMember.member;
+
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private final JPAQueryFactory queryFactory;
+    private final CsvExporter csvExporter;
+
+    /**
+     * 회원 이름, 나이를 CSV 로 내보낸다.
+     */
+    @Transactional(readOnly = true)
+    public long exportMembers(Integer ageGoe, WritableByteChannel channel) {
+        return csvExporter.export(
+                queryFactory
+                        .from(member)
+                        .where(ageGoe(ageGoe))
+                        .orderBy(member.id.asc()),
+                channel,
+                member.username, member.age);
+    }
+
+    private BooleanExpression ageGoe(Integer ageCond) {
+        return ageCond != null ? member.age.goe(ageCond) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.study.querydsl.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 로그로만 남기는 기본 발행 대상
+ */
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            log.info("outbox {} {}#{} {}",
+                    message.eventType(), message.aggregateType(), message.aggregateId(), message.payload());
+        }
+    }
+}
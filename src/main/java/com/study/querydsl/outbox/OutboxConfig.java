@@ -0,0 +1,35 @@
+package com.study.querydsl.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 아웃박스 발행 대상 선택
+ *
+ * <pre>
+ * querydsl.outbox.sink: log | file
+ * querydsl.outbox.file: build/outbox/events.jsonl
+ * </pre>
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "querydsl.outbox.sink", havingValue = "log", matchIfMissing = true)
+    public OutboxSink loggingOutboxSink() {
+        return new LoggingOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "querydsl.outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(ObjectMapper objectMapper,
+                                     @Value("${querydsl.outbox.file:build/outbox/events.jsonl}") Path file) throws IOException {
+        return new FileOutboxSink(objectMapper, file);
+    }
+}
@@ -0,0 +1,122 @@
+package com.study.querydsl.outbox;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkChangeListener;
+import com.study.querydsl.event.BulkOperations;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.study.querydsl.outbox.OutboxEventType.*;
+
+/**
+ * Member / Team 변경을 아웃박스에 기록한다.
+ *
+ * 엔티티 이벤트와 벌크 연산 모두 애그리거트 하나당 이벤트 하나를 남기고 payload 형식도 같다.
+ * 벌크 update 는 실행 후 상태를, 벌크 delete / archive 는 지워지기 전 상태를 JDBC 로 읽어 남긴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        BulkChangeListener {
+
+    private static final String SELECT_MEMBERS_SQL =
+            "select member_id, username, age, team_id from member where member_id in (:ids) order by member_id";
+    private static final String SELECT_TEAMS_SQL =
+            "select team_id, name from team where team_id in (:ids) order by team_id";
+
+    private final OutboxWriter writer;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        append(event.getEntity(), CREATED);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        append(event.getEntity(), UPDATED);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        append(event.getEntity(), DELETED);
+    }
+
+    @Override
+    public void beforeBulkChange(BulkChange change) {
+        switch (change.kind()) {
+            case DELETE -> appendBulk(change, DELETED);
+            case ARCHIVE -> appendBulk(change, ARCHIVED);
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onBulkChange(BulkChange change) {
+        if (change.kind() == BulkChange.Kind.UPDATE) {
+            appendBulk(change, UPDATED);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void append(Object entity, OutboxEventType type) {
+        if (entity instanceof Member member) {
+            Long teamId = member.getTeam() != null ? member.getTeam().getId() : null;
+            writer.append("Member", member.getId(), type,
+                    memberPayload(member.getId(), member.getUsername(), member.getAge(), teamId));
+        } else if (entity instanceof Team team) {
+            writer.append("Team", team.getId(), type, teamPayload(team.getId(), team.getName()));
+        }
+    }
+
+    private void appendBulk(BulkChange change, OutboxEventType type) {
+        boolean members = change.entityType() == Member.class;
+        if (!members && change.entityType() != Team.class) {
+            return;
+        }
+        List<Map<String, Object>> payloads = new ArrayList<>(change.ids().size());
+        for (List<Long> chunk : BulkOperations.chunks(change.ids())) {
+            Map<String, List<Long>> params = Map.of("ids", chunk);
+            if (members) {
+                payloads.addAll(jdbcTemplate.query(SELECT_MEMBERS_SQL, params, (rs, rowNum) -> memberPayload(
+                        rs.getLong("member_id"), rs.getString("username"), rs.getInt("age"),
+                        rs.getObject("team_id", Long.class))));
+            } else {
+                payloads.addAll(jdbcTemplate.query(SELECT_TEAMS_SQL, params, (rs, rowNum) -> teamPayload(
+                        rs.getLong("team_id"), rs.getString("name"))));
+            }
+        }
+        writer.appendAll(members ? "Member" : "Team", type, payloads);
+    }
+
+    private static Map<String, Object> memberPayload(Long id, String username, int age, Long teamId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", id);
+        payload.put("username", username);
+        payload.put("age", age);
+        payload.put("teamId", teamId);
+        return payload;
+    }
+
+    private static Map<String, Object> teamPayload(Long id, String name) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", id);
+        payload.put("name", name);
+        return payload;
+    }
+}
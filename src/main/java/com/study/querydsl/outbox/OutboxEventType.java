@@ -0,0 +1,7 @@
+package com.study.querydsl.outbox;
+
+public enum OutboxEventType {
+    CREATED, UPDATED, DELETED,
+    // member_archive 로 옮겨졌다. (member 테이블에서는 지워짐)
+    ARCHIVED
+}
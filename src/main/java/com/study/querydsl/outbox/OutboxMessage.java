@@ -0,0 +1,17 @@
+package com.study.querydsl.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발행 대상 아웃박스 이벤트
+ * payload 는 JSON 문자열이다.
+ */
+public record OutboxMessage(Long id,
+                            String aggregateType,
+                            Long aggregateId,
+                            String eventType,
+                            @JsonRawValue String payload,
+                            LocalDateTime createdAt) {
+}
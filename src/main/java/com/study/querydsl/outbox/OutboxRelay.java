@@ -0,0 +1,170 @@
+package com.study.querydsl.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 아웃박스 릴레이
+ *
+ * 배치마다 트랜잭션 하나에서
+ * 1. 선점 : 아직 발행하지 않은 이벤트를 id 순으로 배치 크기만큼 select ... for update skip locked 로 잠근다.
+ *    다른 릴레이가 잠근 행은 건너뛰므로 여러 인스턴스가 동시에 돌아도 서로 다른 배치를 가져간다.
+ *    애그리거트(aggregate_type, aggregate_id)별 순서를 지키기 위해 애그리거트마다 가장 오래된 이벤트만 선점한다.
+ *    더 오래된 이벤트가 남아 있으면(다른 릴레이가 잠갔거나 발행 전이면) 그 뒤 이벤트는 다음 배치로 미룬다.
+ *    그래서 같은 애그리거트의 이벤트는 인스턴스가 여러 대여도 생성 순서대로 발행된다. (aggregate_id 가 없는 이벤트는 순서 보장 없음)
+ * 2. 발행 : {@link OutboxSink} 로 보낸다.
+ * 3. 삭제 : 발행한 이벤트를 지우고 커밋한다.
+ * 발행에 실패하면 롤백되어 잠금이 풀리고 다음 실행에서 다시 시도된다.
+ * 릴레이가 발행 후 커밋 전에 죽으면 같은 이벤트가 다시 발행될 수 있다. (at-least-once)
+ *
+ * 메트릭
+ * - outbox.published : 발행한 이벤트 수 (처리량)
+ * - outbox.publish.failures : 발행 실패한 배치 수
+ * - outbox.publish : 배치 발행 시간
+ * - outbox.delivery.lag : 이벤트 생성부터 발행까지 걸린 시간
+ * - outbox.pending, outbox.oldest.age : 남은 이벤트 수, 가장 오래된 이벤트의 대기 시간(초)
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String CLAIM_SQL =
+            "select id, aggregate_type, aggregate_id, event_type, payload, created_at" +
+            " from outbox_event e" +
+            " where not exists (select 1 from outbox_event p" +
+            "  where p.aggregate_type = e.aggregate_type and p.aggregate_id = e.aggregate_id and p.id < e.id)" +
+            " order by id" +
+            " fetch first ? rows only" +
+            " for update skip locked";
+
+    private static final String DELETE_SQL = "delete from outbox_event where id in (:ids)";
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("aggregate_type"),
+            rs.getObject("aggregate_id", Long.class),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTimer;
+    private final Timer deliveryLag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       NamedParameterJdbcTemplate namedJdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${querydsl.outbox.batch-size:100}") int batchSize,
+                       @Value("${querydsl.outbox.max-batches:10}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.publish.failures");
+        this.publishTimer = meterRegistry.timer("outbox.publish");
+        this.deliveryLag = meterRegistry.timer("outbox.delivery.lag");
+        Gauge.builder("outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 한 번에 최대 batchSize * maxBatches 건을 발행한다.
+     * 배치가 가득 차지 않아도 애그리거트별로 미룬 이벤트가 있을 수 있으므로 빈 배치가 나올 때까지 이어간다.
+     * @return 발행한 이벤트 수
+     */
+    @Scheduled(initialDelayString = "${querydsl.outbox.poll-interval:1000}",
+            fixedDelayString = "${querydsl.outbox.poll-interval:1000}")
+    public int relay() {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int count = relayBatch();
+            total += count;
+            if (count == 0) {
+                break;
+            }
+        }
+        refreshBacklog();
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = requiresNew.execute(status -> {
+            List<OutboxMessage> claimed = jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, batchSize);
+            if (claimed.isEmpty()) {
+                return claimed;
+            }
+            try {
+                publishTimer.recordCallable(() -> {
+                    sink.publish(claimed);
+                    return null;
+                });
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("outbox publish failed. events = {}", claimed.size(), e);
+                status.setRollbackOnly();
+                return List.of();
+            }
+            List<Long> ids = claimed.stream().map(OutboxMessage::id).toList();
+            namedJdbcTemplate.update(DELETE_SQL, Map.of("ids", ids));
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : batch) {
+            deliveryLag.record(Duration.between(message.createdAt(), now));
+        }
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    private void refreshBacklog() {
+        jdbcTemplate.query("select count(*), min(created_at) from outbox_event", rs -> {
+            pending.set(rs.getLong(1));
+            Timestamp oldest = rs.getTimestamp(2);
+            oldestAgeSeconds.set(oldest != null
+                    ? Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toSeconds()
+                    : 0);
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.study.querydsl.outbox;
+
+import java.util.List;
+
+/**
+ * 아웃박스 이벤트 발행 대상 (메시지 브로커 등)
+ * 예외 없이 반환하면 발행된 것으로 보고 아웃박스에서 지운다.
+ * 같은 이벤트가 두 번 이상 전달될 수 있으므로(at-least-once) 소비자는 id 로 중복을 걸러야 한다.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,52 @@
+package com.study.querydsl.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * outbox_event 저장
+ * JpaTransactionManager 가 바인딩한 커넥션을 그대로 사용하므로 변경과 같은 트랜잭션에서 커밋(롤백)된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private static final String INSERT_SQL =
+            "insert into outbox_event (aggregate_type, aggregate_id, event_type, payload, created_at)" +
+            " values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void append(String aggregateType, Long aggregateId, OutboxEventType eventType, Map<String, ?> payload) {
+        jdbcTemplate.update(INSERT_SQL,
+                aggregateType, aggregateId, eventType.name(), toJson(payload), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * 같은 종류의 이벤트를 한 번에 저장한다. payload 의 "id" 를 aggregate_id 로 쓴다.
+     */
+    public void appendAll(String aggregateType, OutboxEventType eventType, List<? extends Map<String, ?>> payloads) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = payloads.stream()
+                .map(payload -> new Object[]{aggregateType, payload.get("id"), eventType.name(), toJson(payload), now})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    private String toJson(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("outbox payload 를 직렬화할 수 없습니다. " + payload, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.study.querydsl.plan;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param fingerprint   {@link QueryFingerprint#normalize(String)} 결과
+ * @param sqlWithValues EXPLAIN 한 SQL (바인딩 값 포함)
+ * @param elapsedMillis 원래 쿼리 실행 시간
+ */
+public record CapturedPlan(String fingerprint,
+                           String sqlWithValues,
+                           String plan,
+                           PlanShape shape,
+                           long elapsedMillis,
+                           LocalDateTime capturedAt) {
+
+    public String id() {
+        return QueryFingerprint.id(fingerprint);
+    }
+}
@@ -0,0 +1,39 @@
+package com.study.querydsl.plan;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트 리스너 (JdbcEventListener 빈은 p6spy-spring-boot-starter 가 등록한다.)
+ * 성공한 조회 실행 시간을 {@link QueryPlanCapturer} 로 넘긴다.
+ */
+public class ExplainCaptureListener extends JdbcEventListener {
+
+    private final QueryPlanCapturer capturer;
+
+    public ExplainCaptureListener(QueryPlanCapturer capturer) {
+        this.capturer = capturer;
+    }
+
+    @Override
+    public void onAfterExecuteQuery(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+                                    SQLException e) {
+        capture(statementInformation, timeElapsedNanos, e);
+    }
+
+    @Override
+    public void onAfterExecuteQuery(StatementInformation statementInformation, long timeElapsedNanos, String sql,
+                                    SQLException e) {
+        capture(statementInformation, timeElapsedNanos, e);
+    }
+
+    private void capture(StatementInformation info, long timeElapsedNanos, SQLException e) {
+        if (e != null) {
+            return;
+        }
+        capturer.onQuery(info.getSql(), info.getSqlWithValues(), timeElapsedNanos);
+    }
+}
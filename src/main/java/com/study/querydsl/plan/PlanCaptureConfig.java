@@ -0,0 +1,35 @@
+package com.study.querydsl.plan;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 느린 쿼리 실행 계획 수집 (p6spy 이벤트 -> 수집 스레드에서 EXPLAIN -> PlanStore)
+ * decorator.datasource.enabled=false 로 p6spy 를 끄면 리스너가 호출되지 않는다.
+ */
+@Configuration
+@EnableConfigurationProperties(PlanCaptureProperties.class)
+public class PlanCaptureConfig {
+
+    @Bean
+    public PlanStore planStore(PlanCaptureProperties properties, ObjectProvider<PlanChangeListener> listeners,
+                               MeterRegistry meterRegistry) {
+        return new PlanStore(properties, listeners, meterRegistry);
+    }
+
+    @Bean
+    public QueryPlanCapturer queryPlanCapturer(PlanCaptureProperties properties, PlanStore planStore,
+                                               ObjectProvider<DataSource> dataSource) {
+        return new QueryPlanCapturer(properties, planStore, dataSource);
+    }
+
+    @Bean
+    public ExplainCaptureListener explainCaptureListener(QueryPlanCapturer queryPlanCapturer) {
+        return new ExplainCaptureListener(queryPlanCapturer);
+    }
+}
@@ -0,0 +1,51 @@
+package com.study.querydsl.plan;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 느린 쿼리 실행 계획 수집 설정
+ * 기본은 꺼져 있고 테스트(src/test/resources/config/application.yml), dev 프로파일에서 켠다.
+ *
+ * <pre>
+ * querydsl.plan-capture.enabled: false
+ * querydsl.plan-capture.threshold: 200ms
+ * querydsl.plan-capture.recapture-interval: 10m
+ * querydsl.plan-capture.max-tracked-queries: 10000
+ * querydsl.plan-capture.queue-size: 100
+ * querydsl.plan-capture.analyze: false
+ * querydsl.plan-capture.baseline-file: src/test/resources/query-plans.tsv
+ * querydsl.plan-capture.write-baseline: false
+ * </pre>
+ */
+@Getter @Setter
+@ConfigurationProperties("querydsl.plan-capture")
+public class PlanCaptureProperties {
+
+    private boolean enabled;
+
+    // 이 시간 이상 걸린 select 만 EXPLAIN 한다.
+    private Duration threshold = Duration.ofMillis(200);
+
+    // 같은 쿼리(fingerprint)는 이 간격 안에 다시 EXPLAIN 하지 않는다.
+    private Duration recaptureInterval = Duration.ofMinutes(10);
+
+    // 마지막 수집 시각을 기억하는 쿼리(fingerprint) 수. 넘으면 오래 안 쓴 것부터 잊는다.
+    private int maxTrackedQueries = 10_000;
+
+    // EXPLAIN 대기열 크기. 가득 차면 버린다.
+    private int queueSize = 100;
+
+    // EXPLAIN ANALYZE (쿼리를 한 번 더 실행한다.)
+    private boolean analyze;
+
+    // fingerprint 별 기준 계획 파일. 없으면 처음 수집한 계획이 기준이 된다.
+    private Path baselineFile;
+
+    // 종료 시 수집한 계획으로 기준 파일을 다시 쓴다.
+    private boolean writeBaseline;
+}
@@ -0,0 +1,9 @@
+package com.study.querydsl.plan;
+
+/**
+ * 같은 쿼리의 실행 계획 모양이 기준과 달라졌다.
+ *
+ * @param scanIntroduced 인덱스로 읽던 테이블을 전체 스캔하게 됐는지
+ */
+public record PlanChange(String fingerprint, PlanShape before, CapturedPlan after, boolean scanIntroduced) {
+}
@@ -0,0 +1,9 @@
+package com.study.querydsl.plan;
+
+/**
+ * 실행 계획 변경 알림 (스프링 빈으로 등록하면 PlanStore 가 호출한다.)
+ */
+public interface PlanChangeListener {
+
+    void onPlanChange(PlanChange change);
+}
@@ -0,0 +1,66 @@
+package com.study.querydsl.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 실행 계획의 모양 : 테이블마다 어떤 방식으로 읽는지 (순서대로)
+ *
+ * H2 의 EXPLAIN 은 테이블 뒤에 접근 방식을 주석으로 붙인다.
+ * <pre>
+ * FROM "PUBLIC"."MEMBER" "M1_0" /* PUBLIC.MEMBER.tableScan *&#47;
+ * LEFT OUTER JOIN "PUBLIC"."TEAM" "T1_0" /* PUBLIC.PRIMARY_KEY_2: TEAM_ID = M1_0.TEAM_ID *&#47;
+ * </pre>
+ * 위 계획의 모양은 [MEMBER:scan, TEAM:PRIMARY_KEY] 이다.
+ * 자동 생성된 기본키 인덱스 이름의 번호는 스키마를 만들 때마다 달라지므로 뺀다.
+ */
+public record PlanShape(List<String> accesses) {
+
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"(\\w+)\"\\.\"(\\w+)\"(?:\\s+\"\\w+\")?\\s*/\\*\\s*([^*]+?)\\s*\\*/");
+    private static final Pattern PRIMARY_KEY = Pattern.compile("PRIMARY_KEY_\\w+");
+
+    public static PlanShape parse(String plan) {
+        List<String> accesses = new ArrayList<>();
+        Matcher matcher = TABLE_ACCESS.matcher(plan);
+        while (matcher.find()) {
+            String table = matcher.group(2);
+            accesses.add(table + ":" + access(matcher.group(3)));
+        }
+        return new PlanShape(List.copyOf(accesses));
+    }
+
+    // PUBLIC.MEMBER.tableScan -> scan, PUBLIC.IDX_MEMBER_USERNAME_NORM: USERNAME_NORM = ? -> IDX_MEMBER_USERNAME_NORM
+    private static String access(String comment) {
+        String target = comment.split(":", 2)[0].trim();
+        if (target.endsWith(".tableScan") || target.endsWith(".scanIndex")) {
+            return "scan";
+        }
+        String index = target.substring(target.lastIndexOf('.') + 1);
+        return PRIMARY_KEY.matcher(index).matches() ? "PRIMARY_KEY" : index;
+    }
+
+    public static PlanShape of(String shape) {
+        return new PlanShape(shape.isEmpty() ? List.of() : List.of(shape.split(",")));
+    }
+
+    public boolean scans(String table) {
+        return accesses.contains(table + ":scan");
+    }
+
+    /**
+     * 이전 계획에서는 인덱스로 읽던 테이블을 이번에는 전체 스캔하는지
+     */
+    public boolean introducesScanComparedTo(PlanShape before) {
+        return accesses.stream()
+                .filter(access -> access.endsWith(":scan"))
+                .anyMatch(access -> !before.accesses.contains(access));
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", accesses);
+    }
+}
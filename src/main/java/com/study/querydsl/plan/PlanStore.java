@@ -0,0 +1,128 @@
+package com.study.querydsl.plan;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * fingerprint 별 실행 계획 저장소
+ *
+ * 기준 계획(baseline)과 모양이 다른 계획이 수집되면 {@link PlanChange} 로 남기고 알린다.
+ * 기준 파일이 있으면 기동 시 읽어 기준으로 쓰므로 스키마, 데이터 변경 전후 실행 사이의 변화도 잡는다.
+ * 파일 형식은 한 줄에 "모양 TAB fingerprint" 이다.
+ *
+ * 메트릭
+ * - query.plan.captured : 수집한 계획 수
+ * - query.plan.changes{scan=true|false} : 기준과 달라진 계획 수
+ */
+@Slf4j
+public class PlanStore {
+
+    private final PlanCaptureProperties properties;
+    private final ObjectProvider<PlanChangeListener> listeners;
+
+    private final Map<String, PlanShape> baseline = new ConcurrentHashMap<>();
+    private final Map<String, CapturedPlan> latest = new ConcurrentHashMap<>();
+    private final List<PlanChange> changes = new CopyOnWriteArrayList<>();
+
+    private final Counter captured;
+    private final Counter scanChanges;
+    private final Counter otherChanges;
+
+    public PlanStore(PlanCaptureProperties properties, ObjectProvider<PlanChangeListener> listeners,
+                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.listeners = listeners;
+        this.captured = meterRegistry.counter("query.plan.captured");
+        this.scanChanges = meterRegistry.counter("query.plan.changes", "scan", "true");
+        this.otherChanges = meterRegistry.counter("query.plan.changes", "scan", "false");
+    }
+
+    @PostConstruct
+    public void loadBaseline() {
+        Path file = properties.getBaselineFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String line : lines) {
+            int tab = line.indexOf('\t');
+            if (line.isBlank() || tab < 0) {
+                continue;
+            }
+            baseline.put(line.substring(tab + 1), PlanShape.of(line.substring(0, tab)));
+        }
+        log.info("query plan baseline loaded. file = {}, queries = {}", file, baseline.size());
+    }
+
+    @PreDestroy
+    public void writeBaseline() {
+        Path file = properties.getBaselineFile();
+        if (file == null || !properties.isWriteBaseline()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(latest).forEach((fingerprint, plan) -> lines.add(plan.shape() + "\t" + fingerprint));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void record(CapturedPlan plan) {
+        captured.increment();
+        latest.put(plan.fingerprint(), plan);
+
+        PlanShape before = baseline.putIfAbsent(plan.fingerprint(), plan.shape());
+        if (before == null || before.equals(plan.shape())) {
+            return;
+        }
+
+        PlanChange change = new PlanChange(plan.fingerprint(), before, plan, plan.shape().introducesScanComparedTo(before));
+        changes.add(change);
+        (change.scanIntroduced() ? scanChanges : otherChanges).increment();
+        log.warn("query plan changed. id = {}, {} -> {}, {} ms\n{}\n{}",
+                plan.id(), before, plan.shape(), plan.elapsedMillis(), plan.sqlWithValues(), plan.plan());
+        listeners.orderedStream().forEach(l -> l.onPlanChange(change));
+    }
+
+    public Optional<CapturedPlan> latest(String fingerprint) {
+        return Optional.ofNullable(latest.get(fingerprint));
+    }
+
+    public Collection<CapturedPlan> plans() {
+        return Collections.unmodifiableCollection(latest.values());
+    }
+
+    public List<PlanChange> changes() {
+        return List.copyOf(changes);
+    }
+
+    /**
+     * 기준을 지금 수집된 계획으로 바꾸고 변경 기록을 비운다.
+     */
+    public void acceptChanges() {
+        latest.forEach((fingerprint, plan) -> baseline.put(fingerprint, plan.shape()));
+        changes.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package com.study.querydsl.plan;
+
+import java.util.regex.Pattern;
+
+/**
+ * 값만 다른 쿼리를 같은 쿼리로 묶는 키
+ * 바인딩 전 SQL 에서 공백, 대소문자, 리터럴, in 절 길이 차이를 없앤다.
+ */
+public final class QueryFingerprint {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryFingerprint() {
+    }
+
+    public static String normalize(String sql) {
+        String s = COMMENT.matcher(sql).replaceAll(" ");
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim().toLowerCase();
+    }
+
+    /**
+     * 로그용 짧은 id
+     */
+    public static String id(String normalizedSql) {
+        return String.format("%08x", normalizedSql.hashCode());
+    }
+
+    /**
+     * 앞쪽 주석을 건너뛰고 select / with 로 시작하는지
+     */
+    public static boolean isQuery(String sql) {
+        String s = sql.stripLeading();
+        while (s.startsWith("/*")) {
+            int end = s.indexOf("*/");
+            if (end < 0) {
+                return false;
+            }
+            s = s.substring(end + 2).stripLeading();
+        }
+        return s.regionMatches(true, 0, "select", 0, 6) || s.regionMatches(true, 0, "with", 0, 4);
+    }
+}
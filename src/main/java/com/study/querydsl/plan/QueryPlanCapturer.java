@@ -0,0 +1,169 @@
+package com.study.querydsl.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 느린 select 의 실행 계획을 EXPLAIN 으로 얻어 {@link PlanStore} 에 남긴다.
+ *
+ * EXPLAIN 은 요청 스레드가 아닌 수집 스레드에서 커넥션 풀의 다른 커넥션으로 실행한다.
+ * (요청 트랜잭션 중간에 같은 커넥션으로 쿼리를 더 보내지 않는다. 커밋 전 데이터는 보이지 않는다.)
+ * 대기열이 가득 차면 버린다.
+ *
+ * 같은 쿼리는 recapture-interval 안에 다시 EXPLAIN 하지 않으며, 기억하는 쿼리 수는 max-tracked-queries 로 제한한다.
+ * EXPLAIN 자체가 다시 이 경로로 들어오지 않도록 스레드 단위로 막는다.
+ * EXPLAIN 이 실패해도 원래 쿼리에는 영향을 주지 않는다.
+ */
+@Slf4j
+public class QueryPlanCapturer implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> CAPTURING = ThreadLocal.withInitial(() -> false);
+
+    private final PlanCaptureProperties properties;
+    private final PlanStore planStore;
+    // DataSource 는 p6spy 리스너(이 빈)를 주입받아 만들어지므로 지연 조회한다.
+    private final ObjectProvider<DataSource> dataSource;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Long> lastCapturedAt;
+    // 대기열에 들어갔거나 실행 중인 EXPLAIN 수 (버린 작업은 세지 않는다.)
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public QueryPlanCapturer(PlanCaptureProperties properties, PlanStore planStore, ObjectProvider<DataSource> dataSource) {
+        this.properties = properties;
+        this.planStore = planStore;
+        this.dataSource = dataSource;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "query-plan-capture");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        int maxTracked = properties.getMaxTrackedQueries();
+        this.lastCapturedAt = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxTracked;
+            }
+        };
+    }
+
+    /**
+     * @param sql           바인딩 전 SQL (fingerprint 용)
+     * @param sqlWithValues 바인딩 값을 채운 SQL (EXPLAIN 용)
+     */
+    public void onQuery(String sql, String sqlWithValues, long elapsedNanos) {
+        if (!properties.isEnabled()
+                || CAPTURING.get()
+                || elapsedNanos < properties.getThreshold().toNanos()
+                || sql == null || sqlWithValues == null
+                || !QueryFingerprint.isQuery(sql)) {
+            return;
+        }
+
+        String fingerprint = QueryFingerprint.normalize(sql);
+        if (!due(fingerprint)) {
+            return;
+        }
+        pending.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    capture(fingerprint, sqlWithValues, elapsedNanos);
+                } finally {
+                    done();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 대기열이 가득 찼거나 종료됨
+            done();
+            log.debug("query plan capture dropped. {}", fingerprint);
+        }
+    }
+
+    /**
+     * 대기 중인 EXPLAIN 이 끝날 때까지 기다린다. (테스트용)
+     */
+    public void awaitPending(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("query plan capture did not finish in " + timeout);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(pending, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void done() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (pending) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private synchronized boolean due(String fingerprint) {
+        long now = System.nanoTime();
+        Long last = lastCapturedAt.get(fingerprint);
+        if (last != null && now - last < properties.getRecaptureInterval().toNanos()) {
+            return false;
+        }
+        lastCapturedAt.put(fingerprint, now);
+        return true;
+    }
+
+    private void capture(String fingerprint, String sqlWithValues, long elapsedNanos) {
+        CAPTURING.set(true);
+        try (Connection connection = dataSource.getObject().getConnection()) {
+            String plan = explain(connection, sqlWithValues);
+            planStore.record(new CapturedPlan(fingerprint, sqlWithValues, plan, PlanShape.parse(plan),
+                    elapsedNanos / 1_000_000, LocalDateTime.now()));
+        } catch (SQLException e) {
+            log.debug("explain failed. {}", sqlWithValues, e);
+        } finally {
+            CAPTURING.set(false);
+        }
+    }
+
+    private String explain(Connection connection, String sqlWithValues) throws SQLException {
+        String explain = (properties.isAnalyze() ? "explain analyze " : "explain ") + sqlWithValues;
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(explain)) {
+            while (rs.next()) {
+                if (!plan.isEmpty()) {
+                    plan.append('\n');
+                }
+                plan.append(rs.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.study.querydsl.query;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.study.querydsl.deadline.QueryDeadlines;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * 애플리케이션 공통 JPAQuery
+ * - 직렬화 시 정규화 컬럼 치환({@link NormalizedColumnSerializer})을 적용한다.
+ * - 요청 마감 시각이 있으면 남은 시간을 쿼리 타임아웃으로 건다. ({@link QueryDeadlines})
+ */
+public class ExtendedJPAQuery<T> extends JPAQuery<T> {
+
+    public ExtendedJPAQuery(EntityManager em) {
+        super(em);
+    }
+
+    public ExtendedJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetadata metadata) {
+        super(em, templates, metadata);
+    }
+
+    @Override
+    protected JPQLSerializer createSerializer() {
+        return new NormalizedColumnSerializer(getTemplates(), entityManager);
+    }
+
+    @Override
+    protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+        Query query = super.createQuery(modifiers, forCount);
+        QueryDeadlines.apply(query);
+        return query;
+    }
+
+    @Override
+    public ExtendedJPAQuery<T> clone(EntityManager entityManager, JPQLTemplates templates) {
+        ExtendedJPAQuery<T> q = new ExtendedJPAQuery<>(entityManager, templates, getMetadata().clone());
+        q.clone(this);
+        return q;
+    }
+}
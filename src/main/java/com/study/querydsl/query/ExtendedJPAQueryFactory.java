@@ -0,0 +1,23 @@
+package com.study.querydsl.query;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+
+/**
+ * {@link ExtendedJPAQuery} 를 생성하는 JPAQueryFactory
+ */
+public class ExtendedJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager entityManager;
+
+    public ExtendedJPAQueryFactory(EntityManager entityManager) {
+        super(entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new ExtendedJPAQuery<Void>(entityManager);
+    }
+}
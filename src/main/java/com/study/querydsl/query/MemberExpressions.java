@@ -0,0 +1,74 @@
+package com.study.querydsl.query;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.QTeam;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+/**
+ * 재사용 가능한 Member / Team 표현식 모음
+ *
+ * Querydsl 표현식(Q타입, Param, 조건)은 불변이므로 스레드 간에 공유해도 안전하다.
+ * 요청마다 새로 만들던 별칭, 조건을 상수로 두고 값은 Param 으로 바인딩한다.
+ *
+ * <pre>
+ * queryFactory.selectFrom(member)
+ *         .where(AGE_GOE, AGE_LOE)
+ *         .set(AGE_MIN, 20)
+ *         .set(AGE_MAX, 30)
+ *         .fetch();
+ * </pre>
+ *
+ * 서브쿼리(JPAExpressions.select...)는 가변 객체이므로 공유하지 않는다. 서브쿼리 안의 표현식만 공유한다.
+ */
+public final class MemberExpressions {
+
+    // 별칭
+    public static final QMember MEMBER_SUB = new QMember("memberSub");
+    public static final QTeam TEAM_SUB = new QTeam("teamSub");
+
+    // 파라미터
+    public static final Param<String> USERNAME = new Param<>(String.class, "username");
+    public static final Param<Integer> AGE = new Param<>(Integer.class, "age");
+    // 범위 조건은 하한, 상한을 함께 쓰므로 파라미터를 나눈다.
+    public static final Param<Integer> AGE_MIN = new Param<>(Integer.class, "ageMin");
+    public static final Param<Integer> AGE_MAX = new Param<>(Integer.class, "ageMax");
+    public static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+
+    // 조건
+    public static final BooleanExpression USERNAME_EQ = member.username.eq(USERNAME);
+    public static final BooleanExpression AGE_EQ = member.age.eq(AGE);
+    public static final BooleanExpression AGE_GOE = member.age.goe(AGE_MIN);
+    public static final BooleanExpression AGE_LOE = member.age.loe(AGE_MAX);
+    public static final BooleanExpression TEAM_NAME_EQ = team.name.eq(TEAM_NAME);
+
+    // 집계
+    public static final NumberExpression<Integer> MAX_AGE_SUB = MEMBER_SUB.age.max();
+    public static final NumberExpression<Double> AVG_AGE_SUB = MEMBER_SUB.age.avg();
+    public static final NumberExpression<Double> AVG_AGE = member.age.avg();
+
+    private MemberExpressions() {
+    }
+
+    // 값 조건 (null 이면 조건 무시). DB 쿼리와 메모리 스냅샷({@link com.study.querydsl.cache.MemberSnapshotCache}) 양쪽에 쓸 수 있다.
+
+    public static BooleanExpression usernameEq(String usernameCond) {
+        return usernameCond != null ? member.username.eq(usernameCond) : null;
+    }
+
+    public static BooleanExpression ageEq(Integer ageCond) {
+        return ageCond != null ? member.age.eq(ageCond) : null;
+    }
+
+    public static BooleanExpression teamNameEq(String teamNameCond) {
+        return teamNameCond != null ? team.name.eq(teamNameCond) : null;
+    }
+
+    public static BooleanExpression memberTeamNameEq(String teamNameCond) {
+        return teamNameCond != null ? member.team.name.eq(teamNameCond) : null;
+    }
+}
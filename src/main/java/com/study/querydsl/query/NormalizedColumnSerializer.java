@@ -0,0 +1,68 @@
+package com.study.querydsl.query;
+
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.study.querydsl.entity.Member;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * lower(trim(member.username)) 을 인덱스가 있는 정규화 컬럼(member.usernameNormalized)으로 바꿔 직렬화한다.
+ * 정규화 컬럼은 DB 생성 컬럼 lower(trim(username)) 이므로 결과가 바뀌지 않는 이 모양만 치환한다.
+ *
+ * 대상 표현식
+ * - member.username.trim().lower()
+ * - member.username.trim().equalsIgnoreCase("상수")
+ *
+ * lower(username) 만 쓴 식은 앞뒤 공백을 남기므로 치환하지 않는다. ("member4 " 는 "member4" 와 다르다.)
+ */
+public class NormalizedColumnSerializer extends JPQLSerializer {
+
+    private static final String USERNAME = "username";
+    private static final String USERNAME_NORMALIZED = "usernameNormalized";
+
+    public NormalizedColumnSerializer(JPQLTemplates templates, EntityManager em) {
+        super(templates, em);
+    }
+
+    @Override
+    protected void visitOperation(Class<?> type, Operator operator, List<? extends Expression<?>> args) {
+        if (operator == Ops.LOWER) {
+            Path<?> normalized = normalizedPath(args.get(0));
+            if (normalized != null) {
+                handle(normalized);
+                return;
+            }
+        }
+        // lower(trim(username)) = lower(상수)
+        if (operator == Ops.EQ_IGNORE_CASE && args.get(1) instanceof Constant<?> constant) {
+            Path<?> normalized = normalizedPath(args.get(0));
+            if (normalized != null) {
+                super.visitOperation(type, Ops.EQ, List.of(normalized,
+                        Expressions.constant(constant.getConstant().toString().toLowerCase(Locale.ROOT))));
+                return;
+            }
+        }
+        super.visitOperation(type, operator, args);
+    }
+
+    /**
+     * Member 별칭의 trim(username) 이면 같은 별칭의 정규화 컬럼 경로를 반환한다.
+     */
+    private static Path<?> normalizedPath(Expression<?> expr) {
+        if (!(expr instanceof Operation<?> trim) || trim.getOperator() != Ops.TRIM
+                || !(trim.getArg(0) instanceof Path<?> path)) {
+            return null;
+        }
+        PathMetadata metadata = path.getMetadata();
+        Path<?> parent = metadata.getParent();
+        if (parent == null || parent.getType() != Member.class || !USERNAME.equals(metadata.getName())) {
+            return null;
+        }
+        return Expressions.stringPath(parent, USERNAME_NORMALIZED);
+    }
+}
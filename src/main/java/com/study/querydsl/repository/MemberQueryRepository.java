@@ -0,0 +1,98 @@
+package com.study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.QMemberTeamDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QMemberArchive.memberArchive;
+import static com.study.querydsl.entity.QTeam.team;
+import static com.study.querydsl.query.MemberExpressions.teamNameEq;
+import static com.study.querydsl.query.MemberExpressions.usernameEq;
+
+/**
+ * 회원 조회
+ * 기본은 member(hot) 테이블만 읽고, includeArchived 면 member_archive(cold) 결과를 id 순으로 합친다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberQueryRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition, long offset, long limit) {
+        if (!condition.isIncludeArchived()) {
+            return searchHot(condition, offset, limit);
+        }
+
+        // 두 테이블에서 각각 offset + limit 건까지 읽어 합친 뒤 페이지를 자른다.
+        List<MemberTeamDto> merged = new ArrayList<>(searchHot(condition, 0, offset + limit));
+        merged.addAll(searchArchive(condition, offset + limit));
+        merged.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+
+        int from = (int) Math.min(offset, merged.size());
+        int to = (int) Math.min(offset + limit, merged.size());
+        return new ArrayList<>(merged.subList(from, to));
+    }
+
+    private List<MemberTeamDto> searchHot(MemberSearchCondition condition, long offset, long limit) {
+        return queryFactory
+                .select(memberTeamDto())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .orderBy(member.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    private List<MemberTeamDto> searchArchive(MemberSearchCondition condition, long limit) {
+        return queryFactory
+                .select(new QMemberTeamDto(memberArchive.id, memberArchive.username, memberArchive.age,
+                        memberArchive.teamId, team.name))
+                .from(memberArchive)
+                .leftJoin(team).on(team.id.eq(memberArchive.teamId))
+                .where(condition.getUsername() != null ? memberArchive.username.eq(condition.getUsername()) : null,
+                        teamNameEq(condition.getTeamName()),
+                        condition.getAgeGoe() != null ? memberArchive.age.goe(condition.getAgeGoe()) : null,
+                        condition.getAgeLoe() != null ? memberArchive.age.loe(condition.getAgeLoe()) : null)
+                .orderBy(memberArchive.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    public MemberTeamDto findById(Long memberId) {
+        return queryFactory
+                .select(memberTeamDto())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.eq(memberId))
+                .fetchOne();
+    }
+
+    private static QMemberTeamDto memberTeamDto() {
+        return new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+    }
+
+    private static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
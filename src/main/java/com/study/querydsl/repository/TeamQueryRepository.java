@@ -0,0 +1,45 @@
+package com.study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.QTeamDto;
+import com.study.querydsl.dto.TeamDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamQueryRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    public List<TeamDto> findAll() {
+        return queryFactory
+                .select(teamDto())
+                .from(team)
+                .leftJoin(team.members, member)
+                .groupBy(team.id, team.name)
+                .orderBy(team.name.asc())
+                .fetch();
+    }
+
+    public TeamDto findById(Long teamId) {
+        return queryFactory
+                .select(teamDto())
+                .from(team)
+                .leftJoin(team.members, member)
+                .where(team.id.eq(teamId))
+                .groupBy(team.id, team.name)
+                .fetchOne();
+    }
+
+    private static QTeamDto teamDto() {
+        return new QTeamDto(team.id, team.name, member.count());
+    }
+}
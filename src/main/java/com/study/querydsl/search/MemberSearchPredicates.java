@@ -0,0 +1,64 @@
+package com.study.querydsl.search;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
+import com.study.querydsl.entity.Member;
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QMemberUsernameGram.memberUsernameGram;
+
+/**
+ * 회원 이름 검색 조건
+ * n-gram 색인으로 후보를 좁힌 뒤 원래 조건으로 한 번 더 걸러낸다. (gram 충돌로 인한 오탐 제거)
+ * 다른 조건과 마찬가지로 where(...) 에 조합해서 사용하며, 검색어가 없으면 null 을 반환해 조건이 무시된다.
+ */
+public final class MemberSearchPredicates {
+
+    private MemberSearchPredicates() {
+    }
+
+    /**
+     * 대소문자, 앞뒤 공백을 무시한 이름 일치 (정규화 컬럼 인덱스 사용)
+     */
+    public static BooleanExpression usernameEqIgnoreCase(String username) {
+        return StringUtils.hasText(username) ? member.usernameNormalized.eq(Member.normalize(username)) : null;
+    }
+
+    public static BooleanExpression usernameContains(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        return indexed(UsernameGrams.forContains(keyword), member.username.containsIgnoreCase(keyword));
+    }
+
+    /**
+     * 자동완성용 접두어 검색
+     */
+    public static BooleanExpression usernameStartsWith(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        return indexed(UsernameGrams.forPrefix(keyword), member.username.startsWithIgnoreCase(keyword));
+    }
+
+    private static BooleanExpression indexed(Set<String> grams, BooleanExpression recheck) {
+        // 검색어가 너무 짧아 gram 이 없으면 색인을 쓸 수 없다.
+        if (grams.isEmpty()) {
+            return recheck;
+        }
+        return member.id.in(candidates(grams)).and(recheck);
+    }
+
+    private static JPQLQuery<Long> candidates(Set<String> grams) {
+        return JPAExpressions
+                .select(memberUsernameGram.memberId)
+                .from(memberUsernameGram)
+                .where(memberUsernameGram.gram.in(grams))
+                .groupBy(memberUsernameGram.memberId)
+                .having(memberUsernameGram.count().eq((long) grams.size()));
+    }
+}
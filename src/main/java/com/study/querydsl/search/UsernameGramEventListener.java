@@ -0,0 +1,79 @@
+package com.study.querydsl.search;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkChangeListener;
+import com.study.querydsl.event.BulkOperations;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Member insert / update / delete 이벤트로 회원 이름 색인을 동기화한다.
+ * BulkOperations 를 거친 벌크 연산은 대상 회원만 다시 색인하거나 지운다.
+ * 그 밖의 경로(JPQL, JDBC 직접 실행)로 바뀐 이름은 {@link UsernameGramIndexer#rebuild()} 로 보정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameGramEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        BulkChangeListener {
+
+    private final UsernameGramWriter writer;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            writer.index(member.getId(), member.getUsername());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member member)) {
+            return;
+        }
+        if (event.getOldState() != null) {
+            int usernameIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("username");
+            if (Objects.equals(event.getOldState()[usernameIndex], event.getState()[usernameIndex])) {
+                return;
+            }
+        }
+        writer.reindex(member.getId(), member.getUsername());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            writer.remove(member.getId());
+        }
+    }
+
+    @Override
+    public void onBulkChange(BulkChange change) {
+        if (change.entityType() != Member.class) {
+            return;
+        }
+        for (List<Long> chunk : BulkOperations.chunks(change.ids())) {
+            writer.removeAll(chunk);
+            if (change.kind() == BulkChange.Kind.UPDATE) {
+                jdbcTemplate.query("select member_id, username from member where member_id in (:ids)",
+                        Map.of("ids", chunk),
+                        rs -> {
+                            writer.index(rs.getLong("member_id"), rs.getString("username"));
+                        });
+            }
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.study.querydsl.search;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 회원 이름 색인 전체 재구성
+ * 이벤트 없이(JPQL, JDBC 직접 실행) 바뀐 이름을 member 테이블 기준으로 맞춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameGramIndexer {
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final UsernameGramWriter writer;
+
+    @Transactional
+    @Scheduled(cron = "${querydsl.username-gram.rebuild-cron:0 30 4 * * *}")
+    public void rebuild() {
+        em.flush();
+
+        jdbcTemplate.update("delete from member_username_gram");
+        int[] members = {0};
+        jdbcTemplate.query("select member_id, username from member", (RowCallbackHandler) rs -> {
+            writer.index(rs.getLong("member_id"), rs.getString("username"));
+            members[0]++;
+        });
+        log.info("member_username_gram rebuilt. members = {}", members[0]);
+    }
+}
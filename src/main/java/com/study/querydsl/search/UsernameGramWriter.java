@@ -0,0 +1,43 @@
+package com.study.querydsl.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * member_username_gram 갱신
+ * Member 변경과 같은 트랜잭션(같은 커넥션)에서 실행된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameGramWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public void index(Long memberId, String username) {
+        List<Object[]> rows = UsernameGrams.forIndex(username).stream()
+                .map(gram -> new Object[]{memberId, gram})
+                .toList();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into member_username_gram (member_id, gram) values (?, ?)", rows);
+        }
+    }
+
+    public void remove(Long memberId) {
+        jdbcTemplate.update("delete from member_username_gram where member_id = ?", memberId);
+    }
+
+    public void removeAll(List<Long> memberIds) {
+        namedJdbcTemplate.update("delete from member_username_gram where member_id in (:ids)", Map.of("ids", memberIds));
+    }
+
+    public void reindex(Long memberId, String username) {
+        remove(memberId);
+        index(memberId, username);
+    }
+}
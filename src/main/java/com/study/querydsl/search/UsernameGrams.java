@@ -0,0 +1,54 @@
+package com.study.querydsl.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 회원 이름을 trigram 으로 분해한다.
+ * 이름 앞에는 시작 표시(^)를 붙여 접두어 검색도 같은 색인으로 처리한다.
+ */
+public final class UsernameGrams {
+
+    public static final int GRAM_SIZE = 3;
+    public static final char PREFIX_MARK = '^';
+
+    private UsernameGrams() {
+    }
+
+    /**
+     * 색인에 저장할 gram (시작 표시 포함)
+     */
+    public static Set<String> forIndex(String username) {
+        if (username == null) {
+            return Set.of();
+        }
+        return grams(PREFIX_MARK + normalize(username));
+    }
+
+    /**
+     * 포함 검색용 gram
+     */
+    public static Set<String> forContains(String keyword) {
+        return grams(normalize(keyword));
+    }
+
+    /**
+     * 접두어 검색용 gram
+     */
+    public static Set<String> forPrefix(String keyword) {
+        return grams(PREFIX_MARK + normalize(keyword));
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,63 @@
+package com.study.querydsl.shard;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.OrderSpecifier;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * 쿼리의 orderBy 로 샤드 결과를 다시 정렬할 Comparator 를 만든다.
+ *
+ * 정렬 기준은 조회 결과에 들어 있어야 한다. (select 한 항목 중 하나이거나 단일 프로젝션 자체)
+ * null 은 NullsFirst / NullsLast 를 따르고, 지정하지 않으면 DB(H2)와 같이 가장 작은 값으로 본다.
+ */
+final class MergeOrder {
+
+    private MergeOrder() {
+    }
+
+    static <T> Comparator<T> of(QueryMetadata metadata) {
+        if (metadata.getOrderBy().isEmpty()) {
+            throw new IllegalArgumentException("샤드 간 페이징에는 orderBy 가 필요합니다.");
+        }
+        Comparator<T> comparator = null;
+        for (OrderSpecifier<?> order : metadata.getOrderBy()) {
+            Comparator<T> next = comparator(metadata.getProjection(), order);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparator(Expression<?> projection, OrderSpecifier<?> order) {
+        Comparator<Comparable> values = Comparator.naturalOrder();
+        if (!order.isAscending()) {
+            values = values.reversed();
+        }
+        boolean nullsFirst = switch (order.getNullHandling()) {
+            case NullsFirst -> true;
+            case NullsLast -> false;
+            default -> order.isAscending();
+        };
+        Comparator<Comparable> withNulls = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+        return Comparator.comparing(key(projection, order.getTarget()), withNulls);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static <T> Function<T, Comparable> key(Expression<?> projection, Expression<?> target) {
+        if (target.equals(projection)) {
+            return row -> (Comparable) row;
+        }
+        if (projection instanceof FactoryExpression<?> factory && Tuple.class.equals(factory.getType())) {
+            int index = factory.getArgs().indexOf(target);
+            if (index >= 0) {
+                return row -> (Comparable) ((Tuple) row).get(index, Object.class);
+            }
+        }
+        throw new IllegalArgumentException("정렬 기준이 조회 결과에 없어 샤드 결과를 병합할 수 없습니다: " + target);
+    }
+}
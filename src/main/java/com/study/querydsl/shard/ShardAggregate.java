@@ -0,0 +1,22 @@
+package com.study.querydsl.shard;
+
+/**
+ * 샤드별 집계를 합친 결과
+ * 평균은 샤드별 평균이 아닌 합계 / 건수로 다시 계산한다.
+ */
+public record ShardAggregate(long count, double sum, Double max, Double min) {
+
+    public static final ShardAggregate EMPTY = new ShardAggregate(0, 0, null, null);
+
+    public Double avg() {
+        return count > 0 ? sum / count : null;
+    }
+
+    public ShardAggregate merge(ShardAggregate other) {
+        return new ShardAggregate(
+                count + other.count,
+                sum + other.sum,
+                max == null ? other.max : other.max == null ? max : Math.max(max, other.max),
+                min == null ? other.min : other.min == null ? min : Math.min(min, other.min));
+    }
+}
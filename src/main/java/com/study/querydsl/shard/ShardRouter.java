@@ -0,0 +1,49 @@
+package com.study.querydsl.shard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * id 범위로 샤드를 정한다.
+ *
+ * 샤드마다 id 범위 [shard * RANGE, (shard + 1) * RANGE) 를 나눠 갖고, 샤드의 시퀀스는 자기 범위 안에서만 값을 낸다.
+ * 따라서 샤드마다 따로 만든 team_id, member_id 가 겹치지 않고, team_id 만 보고 샤드를 알 수 있다.
+ * 새 팀은 저장할 샤드를 먼저 고르고({@link #nextShard()}) 그 샤드의 시퀀스로 id 를 받는다.
+ * 회원은 소속 팀과 같은 샤드에 저장되므로 팀이 정해진 조회는 한 샤드에서 끝난다.
+ */
+public class ShardRouter {
+
+    public static final long RANGE = 1L << 40;
+
+    private final int shardCount;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardOf(long teamId) {
+        long shard = teamId / RANGE;
+        if (teamId < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("teamId out of shard ranges: " + teamId);
+        }
+        return (int) shard;
+    }
+
+    /**
+     * 새 팀을 저장할 샤드 (순서대로 돌아가며 고른다.)
+     */
+    public int nextShard() {
+        return Math.floorMod(next.getAndIncrement(), shardCount);
+    }
+
+    public static long rangeStart(int shard) {
+        return shard * RANGE;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
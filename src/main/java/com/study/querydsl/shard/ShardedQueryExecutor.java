@@ -0,0 +1,232 @@
+package com.study.querydsl.shard;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.query.ExtendedJPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * 샤드 단위 Querydsl 실행기
+ *
+ * - 팀이 정해진 쿼리 : forTeam(teamId, ...) 로 한 샤드에서 실행
+ * - 새 팀 저장 : writeForNewTeam(...) 으로 고른 샤드에서 저장 (id 범위로 샤드가 정해진다. {@link ShardRouter})
+ * - 나머지 쿼리 : 모든 샤드에서 병렬 실행 후 결과를 합친다. (정렬, offset/limit, 집계 병합)
+ *
+ * 샤드 쿼리는 실행 후 EntityManager 를 닫으므로 지연 로딩이 필요 없는 결과(프로젝션, 페치 조인)를 사용해야 한다.
+ */
+public class ShardedQueryExecutor implements DisposableBean {
+
+    private final List<EntityManagerFactory> shards;
+    private final List<DataSource> dataSources;
+    private final ShardRouter router;
+    private final ExecutorService executor;
+
+    public ShardedQueryExecutor(List<EntityManagerFactory> shards, List<DataSource> dataSources) {
+        this.shards = List.copyOf(shards);
+        this.dataSources = List.copyOf(dataSources);
+        this.router = new ShardRouter(shards.size());
+        this.executor = Executors.newFixedThreadPool(shards.size());
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(long teamId) {
+        return router.shardOf(teamId);
+    }
+
+    /**
+     * 팀이 속한 샤드에서만 조회한다.
+     */
+    public <R> R forTeam(long teamId, Function<JPAQueryFactory, R> query) {
+        return onShard(router.shardOf(teamId), query);
+    }
+
+    /**
+     * 팀이 속한 샤드에서 트랜잭션으로 실행한다. (저장, 수정)
+     */
+    public <R> R writeForTeam(long teamId, Function<EntityManager, R> work) {
+        return writeOnShard(router.shardOf(teamId), work);
+    }
+
+    /**
+     * 새 팀을 저장할 샤드를 골라 트랜잭션으로 실행한다.
+     * 팀과 회원은 그 샤드의 시퀀스(샤드 id 범위)로 id 를 받으므로 이후 writeForTeam, forTeam 이 같은 샤드로 간다.
+     */
+    public <R> R writeForNewTeam(Function<EntityManager, R> work) {
+        return writeOnShard(router.nextShard(), work);
+    }
+
+    public <R> R writeOnShard(int shard, Function<EntityManager, R> work) {
+        EntityManager em = shards.get(shard).createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            R result = work.apply(em);
+            tx.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * 모든 샤드의 결과를 이어 붙인다. (순서 보장 없음)
+     */
+    public <T> List<T> fetchAll(Function<JPAQueryFactory, JPAQuery<T>> query) {
+        List<T> result = new ArrayList<>();
+        scatter(qf -> query.apply(qf).fetch()).forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * 정렬, 페이징을 샤드 간에 병합한다.
+     * 각 샤드는 offset + limit 건까지만 조회하고, 합친 결과를 쿼리의 orderBy 로 다시 정렬해 자른다.
+     * 정렬 기준은 select 한 항목이어야 한다. ({@link MergeOrder})
+     */
+    public <T> List<T> fetch(Function<JPAQueryFactory, JPAQuery<T>> query, long offset, long limit) {
+        List<Comparator<T>> orders = new ArrayList<>();
+        List<T> merged = new ArrayList<>();
+        scatter(qf -> {
+            JPAQuery<T> shardQuery = query.apply(qf);
+            Comparator<T> order = MergeOrder.of(shardQuery.getMetadata());
+            List<T> rows = shardQuery.offset(0).limit(offset + limit).fetch();
+            return new Page<>(order, rows);
+        }).forEach(page -> {
+            orders.add(page.order());
+            merged.addAll(page.rows());
+        });
+        merged.sort(orders.get(0));
+        return merged.stream().skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * 샤드 간 결과 건수
+     * groupBy, distinct 가 있으면 같은 그룹(값)이 여러 샤드에 있을 수 있으므로
+     * 샤드마다 그룹 키(distinct 면 조회 결과)를 읽어 합친 뒤 센다.
+     */
+    public long count(Function<JPAQueryFactory, JPAQuery<?>> query) {
+        List<ShardCount> counts = scatter(qf -> {
+            JPAQuery<?> shardQuery = query.apply(qf);
+            QueryMetadata metadata = shardQuery.getMetadata();
+            if (metadata.isDistinct()) {
+                return new ShardCount(0, new HashSet<>(shardQuery.fetch()));
+            }
+            if (!metadata.getGroupBy().isEmpty()) {
+                List<Expression<?>> keys = metadata.getGroupBy();
+                JPAQuery<?> keyQuery = keys.size() == 1
+                        ? shardQuery.select(keys.get(0))
+                        : shardQuery.select(keys.toArray(new Expression<?>[0]));
+                return new ShardCount(0, new HashSet<>(keyQuery.fetch()));
+            }
+            Long count = shardQuery.select(Wildcard.count).fetchOne();
+            return new ShardCount(count != null ? count : 0L, null);
+        });
+
+        if (counts.stream().allMatch(c -> c.keys() == null)) {
+            return counts.stream().mapToLong(ShardCount::count).sum();
+        }
+        Set<Object> keys = new HashSet<>();
+        counts.forEach(c -> keys.addAll(c.keys()));
+        return keys.size();
+    }
+
+    /**
+     * count / sum / avg / max / min 을 샤드 간에 병합한다.
+     *
+     * @param from  from, where 만 지정한 쿼리
+     * @param value 집계 대상 (예: member.age)
+     */
+    public ShardAggregate aggregate(Function<JPAQueryFactory, JPAQuery<?>> from, NumberExpression<?> value) {
+        return scatter(qf -> {
+            Tuple tuple = from.apply(qf)
+                    .select(value.count(), value.sum(), value.max(), value.min())
+                    .fetchOne();
+            return toAggregate(tuple);
+        }).stream().reduce(ShardAggregate.EMPTY, ShardAggregate::merge);
+    }
+
+    public <R> List<R> scatter(Function<JPAQueryFactory, R> query) {
+        List<CompletableFuture<R>> futures = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(shard, query), executor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <R> R onShard(int shard, Function<JPAQueryFactory, R> query) {
+        EntityManager em = shards.get(shard).createEntityManager();
+        try {
+            return query.apply(new ExtendedJPAQueryFactory(em));
+        } finally {
+            em.close();
+        }
+    }
+
+    private record Page<T>(Comparator<T> order, List<T> rows) {
+    }
+
+    // keys 는 groupBy, distinct 쿼리일 때만 있다.
+    private record ShardCount(long count, Set<?> keys) {
+    }
+
+    private static ShardAggregate toAggregate(Tuple tuple) {
+        if (tuple == null) {
+            return ShardAggregate.EMPTY;
+        }
+        Number count = tuple.get(0, Number.class);
+        Number sum = tuple.get(1, Number.class);
+        Number max = tuple.get(2, Number.class);
+        Number min = tuple.get(3, Number.class);
+        return new ShardAggregate(
+                count != null ? count.longValue() : 0,
+                sum != null ? sum.doubleValue() : 0,
+                max != null ? max.doubleValue() : null,
+                min != null ? min.doubleValue() : null);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        shards.forEach(EntityManagerFactory::close);
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
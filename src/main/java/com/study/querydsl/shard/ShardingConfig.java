@@ -0,0 +1,89 @@
+package com.study.querydsl.shard;
+
+import com.study.querydsl.entity.Member;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 샤드별 DataSource, EntityManagerFactory 구성 (querydsl.sharding.enabled=true 일 때만)
+ *
+ * 샤드 EntityManagerFactory 는 빈으로 등록하지 않는다. (기본 EntityManagerFactory 주입과 충돌 방지)
+ * team_stats, 이름 색인 같은 파생 테이블은 기본 DB 에서만 이벤트로 유지된다.
+ *
+ * 기동 시 샤드의 시퀀스를 샤드 id 범위로 옮긴다. ({@link ShardRouter}, {@link #moveSequencesToRange})
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "querydsl.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedQueryExecutor shardedQueryExecutor(ShardingProperties properties, EntityManagerFactoryBuilder builder) {
+        List<DataSource> dataSources = new ArrayList<>();
+        List<EntityManagerFactory> emfs = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSources.add(dataSource);
+            emfs.add(createEntityManagerFactory("shard" + i, dataSource, properties, builder));
+            moveSequencesToRange(dataSource, i);
+        }
+        return new ShardedQueryExecutor(emfs, dataSources);
+    }
+
+    /**
+     * 시퀀스 다음 값이 샤드 범위보다 작으면 범위 시작으로 옮긴다. 이미 범위 안이면 그대로 둔다. (값 하나는 건너뛴다.)
+     * pooled 최적화는 첫 값에서 (증가폭 - 1) 을 뺀 값부터 쓰므로 범위 시작 + 증가폭으로 옮긴다.
+     */
+    static void moveSequencesToRange(DataSource dataSource, int shard) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        long start = ShardRouter.rangeStart(shard);
+        long end = ShardRouter.rangeStart(shard + 1);
+        jdbc.queryForList("select sequence_name, increment from information_schema.sequences" +
+                " where sequence_schema = 'PUBLIC'").forEach(row -> {
+            String sequence = (String) row.get("SEQUENCE_NAME");
+            long increment = ((Number) row.get("INCREMENT")).longValue();
+            Long next = jdbc.queryForObject("select next value for " + sequence, Long.class);
+            if (next < start) {
+                jdbc.execute("alter sequence " + sequence + " restart with " + (start + increment));
+            } else if (next >= end) {
+                throw new IllegalStateException("shard" + shard + " " + sequence + " exhausted its id range: " + next);
+            }
+        });
+    }
+
+    private EntityManagerFactory createEntityManagerFactory(String name, DataSource dataSource,
+                                                           ShardingProperties properties,
+                                                           EntityManagerFactoryBuilder builder) {
+        LocalContainerEntityManagerFactoryBean factoryBean = builder
+                .dataSource(dataSource)
+                .packages(Member.class)
+                .persistenceUnit(name)
+                .properties(Map.of(
+                        "hibernate.hbm2ddl.auto", properties.getDdlAuto(),
+                        // 기본 EntityManagerFactory 와 같은 테이블, 컬럼 이름을 쓰도록 스프링 부트 기본 전략을 지정
+                        "hibernate.physical_naming_strategy",
+                        "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                        "hibernate.implicit_naming_strategy",
+                        "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy"))
+                .build();
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+}
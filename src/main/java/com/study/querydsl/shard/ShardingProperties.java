@@ -0,0 +1,36 @@
+package com.study.querydsl.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * team_id 기준 샤딩 설정
+ *
+ * <pre>
+ * querydsl.sharding.enabled: true
+ * querydsl.sharding.shards[0].url: jdbc:h2:mem:shard0
+ * querydsl.sharding.shards[1].url: jdbc:h2:mem:shard1
+ * </pre>
+ */
+@Getter @Setter
+@ConfigurationProperties("querydsl.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    // 샤드 스키마 생성 방식 (hibernate.hbm2ddl.auto)
+    private String ddlAuto = "none";
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
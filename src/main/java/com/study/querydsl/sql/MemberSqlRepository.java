@@ -0,0 +1,57 @@
+package com.study.querydsl.sql;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.sql.SQLQueryFactory;
+import com.study.querydsl.dto.MemberDto;
+import com.study.querydsl.dto.QMemberDto;
+import com.study.querydsl.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.sql.SMember.member;
+import static com.study.querydsl.sql.STeam.team;
+
+/**
+ * 읽기 전용 조회 (querydsl-sql)
+ * JPQL 변환, 엔티티 하이드레이션, 영속성 컨텍스트 등록 없이 JDBC 로 DTO 를 바로 만든다.
+ * 활동 중인 회원(member)만 조회한다. 보관된 회원까지 필요하면 MemberQueryRepository#search (MemberSearchCondition.includeArchived) 를 쓴다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberSqlRepository {
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    public List<MemberDto> findMemberDtos(String teamName, Integer ageGoe) {
+        return sqlQueryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(teamNameEq(teamName), ageGoe(ageGoe))
+                .orderBy(member.memberId.asc())
+                .fetch();
+    }
+
+    public List<UserDto> findUserDtos(String teamName, Integer ageGoe) {
+        return sqlQueryFactory
+                .select(Projections.constructor(UserDto.class, member.username, member.age))
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(teamNameEq(teamName), ageGoe(ageGoe))
+                .orderBy(member.memberId.asc())
+                .fetch();
+    }
+
+    private BooleanExpression teamNameEq(String teamNameCond) {
+        return teamNameCond != null ? team.name.eq(teamNameCond) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageCond) {
+        return ageCond != null ? member.age.goe(ageCond) : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.study.querydsl.sql;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
+import com.study.querydsl.deadline.DeadlineSQLListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * querydsl-sql 설정
+ * 트랜잭션에 바인딩된 커넥션을 사용하므로 JPA 와 같은 트랜잭션 안에서 실행된다.
+ * (영속성 컨텍스트에 남은 변경은 flush 후에 보인다.)
+ */
+@Configuration
+public class QuerydslSqlConfig {
+
+    @Bean
+    public com.querydsl.sql.Configuration querydslSqlConfiguration() {
+        SQLTemplates templates = H2Templates.builder().build();
+        com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(templates);
+        // 요청 마감 시각을 statement 타임아웃으로 건다.
+        configuration.addListener(new DeadlineSQLListener());
+        return configuration;
+    }
+
+    @Bean
+    public SQLQueryFactory sqlQueryFactory(com.querydsl.sql.Configuration querydslSqlConfiguration, DataSource dataSource) {
+        // 트랜잭션 밖에서는 쿼리마다 커넥션을 반납하고, 트랜잭션 안에서는 close 가 무시된다.
+        return new SQLQueryFactory(querydslSqlConfiguration, new TransactionAwareDataSourceProxy(dataSource));
+    }
+}
@@ -0,0 +1,101 @@
+package com.study.querydsl.stats;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkChangeListener;
+import com.study.querydsl.event.BulkOperations;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Member insert / update / delete 이벤트로 team_stats 를 증분 갱신한다.
+ * BulkOperations 를 거친 벌크 연산은 실행 전에 대상 회원 몫을 빼고 실행 후에 다시 더한다. (delete 는 더할 행이 없다.)
+ * 그 밖의 경로(JPQL, JDBC 직접 실행)로 바뀐 통계는 {@link TeamStatsRebuilder} 로 보정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamStatsEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        BulkChangeListener {
+
+    private static final String SUM_BY_TEAM_SQL =
+            "select team_id, count(*) cnt, sum(age) age_sum from member" +
+            " where member_id in (:ids) and team_id is not null" +
+            " group by team_id";
+
+    private final TeamStatsWriter writer;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            writer.add(teamId(member.getTeam()), member.getAge());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member) || event.getOldState() == null) {
+            return;
+        }
+        int teamIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("team");
+        int ageIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("age");
+
+        Long oldTeamId = teamId((Team) event.getOldState()[teamIndex]);
+        Long newTeamId = teamId((Team) event.getState()[teamIndex]);
+        int oldAge = (Integer) event.getOldState()[ageIndex];
+        int newAge = (Integer) event.getState()[ageIndex];
+
+        if (Objects.equals(oldTeamId, newTeamId) && oldAge == newAge) {
+            return;
+        }
+        writer.remove(oldTeamId, oldAge);
+        writer.add(newTeamId, newAge);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            writer.remove(teamId(member.getTeam()), member.getAge());
+        }
+    }
+
+    @Override
+    public void beforeBulkChange(BulkChange change) {
+        if (change.entityType() == Member.class) {
+            applySums(change.ids(), -1);
+        }
+    }
+
+    @Override
+    public void onBulkChange(BulkChange change) {
+        if (change.entityType() == Member.class && change.kind() == BulkChange.Kind.UPDATE) {
+            applySums(change.ids(), 1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 대상 회원들의 팀별 인원, 나이 합을 더하거나(sign = 1) 뺀다(sign = -1).
+    private void applySums(List<Long> memberIds, int sign) {
+        for (List<Long> chunk : BulkOperations.chunks(memberIds)) {
+            jdbcTemplate.query(SUM_BY_TEAM_SQL, Map.of("ids", chunk), rs -> {
+                writer.apply(rs.getLong("team_id"), sign * rs.getLong("cnt"), sign * rs.getLong("age_sum"));
+            });
+        }
+    }
+
+    private static Long teamId(Team team) {
+        return team != null ? team.getId() : null;
+    }
+}
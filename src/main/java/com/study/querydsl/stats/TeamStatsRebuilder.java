@@ -0,0 +1,41 @@
+package com.study.querydsl.stats;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * team_stats 정합성 재구성 작업
+ * 벌크 연산이나 누락된 이벤트로 어긋난 통계를 member 테이블 기준으로 다시 만든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamStatsRebuilder {
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    @Scheduled(cron = "${querydsl.team-stats.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        // 아직 반영되지 않은 Member 변경을 먼저 내보낸다.
+        em.flush();
+
+        jdbcTemplate.update("delete from team_stats");
+        int teams = jdbcTemplate.update(
+                "insert into team_stats (team_id, member_count, age_sum, age_avg)" +
+                " select team_id, count(*), sum(age), avg(cast(age as double))" +
+                " from member" +
+                " where team_id is not null" +
+                " group by team_id");
+
+        // 영속성 컨텍스트에 남은 이전 통계 엔티티는 버린다.
+        em.clear();
+        log.info("team_stats rebuilt. teams = {}", teams);
+    }
+}
@@ -0,0 +1,47 @@
+package com.study.querydsl.stats;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.dto.QTeamStatsDto;
+import com.study.querydsl.dto.TeamStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QTeam.team;
+import static com.study.querydsl.entity.QTeamStats.teamStats;
+
+/**
+ * 팀 통계 조회
+ * member 를 조인, group by 하지 않고 team_stats 에서 바로 읽는다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamStatsRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * 평균 나이 순 팀 순위
+     */
+    public List<TeamStatsDto> findLeaderboard(int limit) {
+        return queryFactory
+                .select(new QTeamStatsDto(team.name, teamStats.memberCount, teamStats.ageAvg))
+                .from(teamStats)
+                .join(teamStats.team, team)
+                .orderBy(teamStats.ageAvg.desc(), team.name.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    public TeamStatsDto findByTeamName(String teamName) {
+        return queryFactory
+                .select(new QTeamStatsDto(team.name, teamStats.memberCount, teamStats.ageAvg))
+                .from(teamStats)
+                .join(teamStats.team, team)
+                .where(team.name.eq(teamName))
+                .fetchOne();
+    }
+}
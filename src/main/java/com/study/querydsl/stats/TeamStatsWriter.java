@@ -0,0 +1,103 @@
+package com.study.querydsl.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+
+/**
+ * team_stats 증분 갱신
+ * JpaTransactionManager 가 바인딩한 커넥션을 그대로 사용하므로 Member 변경과 같은 트랜잭션에서 반영된다.
+ * 회원 수가 0 이 된 팀의 행은 지운다. (재구성 작업과 같이 회원이 있는 팀만 통계를 가진다.)
+ */
+@Slf4j
+@Component
+public class TeamStatsWriter {
+
+    // UPDATE 의 SET 절은 모두 갱신 전 값을 참조한다. 행이 없는 상태의 감소는 무시한다. (재구성 작업에서 보정)
+    private static final String SET_SQL =
+            "  set member_count = t.member_count + d.cnt," +
+            "      age_sum = t.age_sum + d.age_sum," +
+            "      age_avg = case when t.member_count + d.cnt = 0 then 0" +
+            "                     else cast(t.age_sum + d.age_sum as double) / (t.member_count + d.cnt) end";
+
+    // 두 트랜잭션이 동시에 insert 쪽으로 가면 한쪽이 키 중복으로 실패할 수 있다. (H2 는 실패한 문장만 되돌리므로 다시 실행한다.)
+    private static final String MERGE_SQL =
+            "merge into team_stats t" +
+            " using (select cast(? as bigint) team_id, cast(? as bigint) cnt, cast(? as bigint) age_sum) d" +
+            " on t.team_id = d.team_id" +
+            " when matched then update" + SET_SQL +
+            " when not matched and d.cnt > 0 then insert (team_id, member_count, age_sum, age_avg)" +
+            "  values (d.team_id, d.cnt, d.age_sum, cast(d.age_sum as double) / d.cnt)";
+
+    // PostgreSQL 의 MERGE 도 동시 insert 에서 키 중복이 날 수 있고, 실패하면 트랜잭션 전체가 깨지므로 ON CONFLICT 로 원자적으로 처리한다.
+    // 행이 없는 상태의 감소는 where 절로 무시한다.
+    private static final String UPSERT_SQL =
+            "insert into team_stats as t (team_id, member_count, age_sum, age_avg)" +
+            " select d.team_id, d.cnt, d.age_sum, cast(d.age_sum as double precision) / d.cnt" +
+            " from (select cast(? as bigint) team_id, cast(? as bigint) cnt, cast(? as bigint) age_sum) d" +
+            " where d.cnt > 0" +
+            " on conflict (team_id) do update" +
+            "  set member_count = t.member_count + excluded.member_count," +
+            "      age_sum = t.age_sum + excluded.age_sum," +
+            "      age_avg = case when t.member_count + excluded.member_count = 0 then 0" +
+            "                     else cast(t.age_sum + excluded.age_sum as double precision)" +
+            "                          / (t.member_count + excluded.member_count) end";
+
+    private static final String DELETE_EMPTY_SQL = "delete from team_stats where team_id = ? and member_count <= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public TeamStatsWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = "PostgreSQL".equals(databaseProductName(jdbcTemplate));
+    }
+
+    public void add(Long teamId, int age) {
+        apply(teamId, 1, age);
+    }
+
+    public void remove(Long teamId, int age) {
+        apply(teamId, -1, -age);
+    }
+
+    /**
+     * 여러 회원을 한 번에 더하거나(countDelta > 0) 뺀다(countDelta < 0).
+     */
+    public void apply(Long teamId, long countDelta, long ageDelta) {
+        if (teamId == null || countDelta == 0) {
+            return;
+        }
+        if (postgres) {
+            jdbcTemplate.update(UPSERT_SQL, teamId, countDelta, ageDelta);
+        } else {
+            merge(teamId, countDelta, ageDelta);
+        }
+        if (countDelta < 0) {
+            jdbcTemplate.update(DELETE_EMPTY_SQL, teamId);
+        }
+    }
+
+    private void merge(Long teamId, long countDelta, long ageDelta) {
+        try {
+            jdbcTemplate.update(MERGE_SQL, teamId, countDelta, ageDelta);
+        } catch (DuplicateKeyException e) {
+            // 다른 트랜잭션이 먼저 행을 만들었으므로 이번에는 update 쪽으로 간다.
+            jdbcTemplate.update(MERGE_SQL, teamId, countDelta, ageDelta);
+        }
+    }
+
+    private static String databaseProductName(JdbcTemplate jdbcTemplate) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            log.warn("database product name unavailable. using MERGE for team_stats", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.study.querydsl.version;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+
+/**
+ * 버전을 관리하는 애그리거트. 이름은 aggregate_version 의 키와 같다.
+ */
+public enum Aggregate {
+    MEMBER, TEAM;
+
+    /**
+     * 버전을 관리하지 않는 엔티티면 null
+     */
+    public static Aggregate of(Class<?> entityType) {
+        if (Member.class.isAssignableFrom(entityType)) {
+            return MEMBER;
+        }
+        if (Team.class.isAssignableFrom(entityType)) {
+            return TEAM;
+        }
+        return null;
+    }
+}
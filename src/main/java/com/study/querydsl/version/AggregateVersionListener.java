@@ -0,0 +1,104 @@
+package com.study.querydsl.version;
+
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkChangeListener;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Member / Team 변경(벌크 연산 포함)이 커밋되면 버전을 올린다.
+ * 트랜잭션마다 바뀐 애그리거트를 모아 커밋 후 한 문장으로 한 번만 올린다. (롤백되면 올리지 않는다.)
+ * 응답에 나가지 않는 속성(활동 시각)만 바뀐 수정은 무시한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AggregateVersionListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        BulkChangeListener {
+
+    private static final Set<String> IGNORED_PROPERTIES = Set.of("lastActiveAt");
+
+    private final AggregateVersions versions;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (visibleChange(event)) {
+            changed(event.getEntity().getClass());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onBulkChange(BulkChange change) {
+        changed(change.entityType());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 바뀐 속성을 모르면 바뀐 것으로 본다.
+    private static boolean visibleChange(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (!IGNORED_PROPERTIES.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void changed(Class<?> entityType) {
+        Aggregate aggregate = Aggregate.of(entityType);
+        if (aggregate == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.increment(List.of(aggregate));
+            return;
+        }
+
+        // 트랜잭션당 동기화 하나만 등록하고 바뀐 애그리거트를 모은다.
+        // 커밋 중 flush 에서 등록돼도 afterCommit 은 호출된다.
+        Set<Aggregate> changed = (Set<Aggregate>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Aggregate> aggregates = EnumSet.noneOf(Aggregate.class);
+            TransactionSynchronizationManager.bindResource(this, aggregates);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.increment(aggregates);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AggregateVersionListener.this);
+                }
+            });
+            changed = aggregates;
+        }
+        changed.add(aggregate);
+    }
+}
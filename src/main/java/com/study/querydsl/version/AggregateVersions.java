@@ -0,0 +1,114 @@
+package com.study.querydsl.version;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 애그리거트별 변경 버전 (aggregate_version 테이블)
+ * 쓰기가 커밋되면 {@link AggregateVersionListener} 가 트랜잭션당 한 번 올린다. ETag, 응답 캐시 키로 쓴다.
+ *
+ * - 커밋 후 별도 트랜잭션에서 한 문장으로 올리므로 쓰기 트랜잭션이 버전 행 잠금을 기다리지 않는다.
+ * - 태그는 메모리에 두고 이 인스턴스의 커밋이면 바로, 다른 인스턴스의 커밋이면 tag-ttl 안에 다시 읽는다.
+ * - 엔티티 이벤트나 {@link com.study.querydsl.event.BulkOperations} 를 거치지 않는 쓰기(JDBC 직접 실행 등)는
+ *   BulkOperations.apply 로 감싸거나 {@link #increment} 를 호출해야 반영된다.
+ * - 커밋과 버전 증가 사이에 프로세스가 죽으면 그 변경은 다음 변경까지 ETag 에 반영되지 않는다.
+ *
+ * 초기값은 테이블을 만든 시각(epoch millis)이므로 스키마를 다시 만들어도 이전 ETag 와 겹치지 않는다.
+ *
+ * <pre>
+ * querydsl.version.tag-ttl: 1s
+ * </pre>
+ */
+@Component
+public class AggregateVersions {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final long ttlNanos;
+
+    // invalidate 마다 올라간다. 이전 세대에 읽은 태그는 쓰지 않는다.
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CachedTag cached;
+
+    public AggregateVersions(NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${querydsl.version.tag-ttl:1s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long current(Aggregate aggregate) {
+        return jdbcTemplate.queryForObject("select version from aggregate_version where aggregate = :aggregate",
+                Map.of("aggregate", aggregate.name()), Long.class);
+    }
+
+    /**
+     * 모든 애그리거트 버전을 합친 태그 (예: 1718000000000.1718000000003)
+     * tag-ttl 동안은 메모리에 둔 값을 돌려준다.
+     */
+    public String tag() {
+        long gen = generation.get();
+        CachedTag tag = cached;
+        if (tag != null && tag.generation() == gen && System.nanoTime() - tag.readAt() < ttlNanos) {
+            return tag.value();
+        }
+
+        long readAt = System.nanoTime();
+        String value = readTag();
+        cached = new CachedTag(gen, value, readAt);
+        return value;
+    }
+
+    /**
+     * 버전을 올린다. 호출한 트랜잭션과 별도로 바로 커밋되므로 쓰기가 커밋된 뒤에 호출한다.
+     */
+    public void increment(Collection<Aggregate> aggregates) {
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        newTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "update aggregate_version set version = version + 1 where aggregate in (:aggregates)",
+                Map.of("aggregates", aggregates.stream().map(Aggregate::name).toList())));
+        invalidate();
+    }
+
+    /**
+     * 메모리에 둔 태그를 버린다. 다음 {@link #tag()} 가 DB 에서 다시 읽는다.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private String readTag() {
+        Map<Aggregate, Long> versions = new EnumMap<>(Aggregate.class);
+        jdbcTemplate.query("select aggregate, version from aggregate_version",
+                rs -> {
+                    versions.put(Aggregate.valueOf(rs.getString("aggregate")), rs.getLong("version"));
+                });
+
+        StringBuilder sb = new StringBuilder();
+        for (Aggregate aggregate : Aggregate.values()) {
+            if (!sb.isEmpty()) {
+                sb.append('.');
+            }
+            sb.append(versions.getOrDefault(aggregate, 0L));
+        }
+        return sb.toString();
+    }
+
+    private record CachedTag(long generation, String value, long readAt) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.study.querydsl.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.querydsl.version.AggregateVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * 버전 기반 조건부 응답 (ETag / 304 Not Modified)
+ *
+ * 1. If-None-Match 가 현재 ETag 와 같으면 304 (DB 조회 없음)
+ * 2. 같은 조회, 같은 버전의 본문이 캐시에 있으면 그대로 응답 (DB 조회 없음)
+ * 3. 없으면 조회해 직렬화한 본문을 캐시에 넣는다.
+ *
+ * 회원 목록은 팀 이름을, 팀 목록은 회원 수를 보여주므로 ETag 는 모든 애그리거트 버전으로 만든다.
+ * 버전 태그는 메모리에 두므로 304 응답은 DB 를 읽지 않는다. 이 인스턴스의 커밋은 바로, 다른 인스턴스의 커밋은
+ * tag-ttl 안에 반영된다. ({@link AggregateVersions})
+ *
+ * 메트릭
+ * - http.conditional.responses{result=not_modified|hit|miss}
+ */
+@Component
+public class ConditionalResponses {
+
+    private final AggregateVersions versions;
+    private final ResponseBodyCache cache;
+    private final ObjectMapper objectMapper;
+
+    private final Counter notModified;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ConditionalResponses(AggregateVersions versions, ResponseBodyCache cache, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.versions = versions;
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+
+        this.notModified = meterRegistry.counter("http.conditional.responses", "result", "not_modified");
+        this.hits = meterRegistry.counter("http.conditional.responses", "result", "hit");
+        this.misses = meterRegistry.counter("http.conditional.responses", "result", "miss");
+    }
+
+    /**
+     * @param queryKey 같은 결과를 내는 요청이면 같은 값 (경로 + 조회 조건)
+     * @param loader   조회 결과가 없으면 null (404, 캐시하지 않는다.)
+     */
+    public ResponseEntity<byte[]> respond(WebRequest request, String queryKey, Supplier<?> loader) {
+        // 조회 전에 버전을 읽는다. 조회 중에 커밋된 변경은 다음 버전에서 다시 읽힌다.
+        String tag = versions.tag();
+        String etag = "\"" + tag + "\"";
+        cache.syncTag(tag);
+
+        if (request.checkNotModified(etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        String cacheKey = queryKey + "@" + tag;
+        byte[] body = cache.get(cacheKey);
+        if (body != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Object result = loader.get();
+            if (result == null) {
+                return ResponseEntity.notFound().build();
+            }
+            body = toJson(result);
+            cache.put(cacheKey, body);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private byte[] toJson(Object result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답을 직렬화할 수 없습니다.", e);
+        }
+    }
+}
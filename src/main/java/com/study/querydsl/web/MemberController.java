@@ -0,0 +1,35 @@
+package com.study.querydsl.web;
+
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.repository.MemberQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberController {
+
+    private final MemberQueryRepository memberQueryRepository;
+    private final ConditionalResponses conditionalResponses;
+
+    @GetMapping("/members")
+    public ResponseEntity<byte[]> searchMembers(MemberSearchCondition condition,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                WebRequest request) {
+        String key = "members:" + condition + ":" + page + ":" + size;
+        return conditionalResponses.respond(request, key,
+                () -> memberQueryRepository.search(condition, (long) page * size, size));
+    }
+
+    @GetMapping("/members/{id}")
+    public ResponseEntity<byte[]> findMember(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.respond(request, "member:" + id,
+                () -> memberQueryRepository.findById(id));
+    }
+}
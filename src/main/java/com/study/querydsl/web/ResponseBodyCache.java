@@ -0,0 +1,55 @@
+package com.study.querydsl.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 직렬화된 응답 본문 LRU 캐시
+ * 버전 태그가 바뀌면 전부 비운다. ({@link #syncTag})
+ * 키에도 태그를 넣어 태그를 읽은 뒤 다른 요청이 비운 경우에도 다른 버전의 본문을 내주지 않는다.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private final Map<String, byte[]> bodies;
+    private String tag;
+
+    public ResponseBodyCache(@Value("${querydsl.http-cache.max-entries:256}") int maxEntries) {
+        this.bodies = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 현재 버전 태그와 다르면 캐시를 비운다.
+     */
+    public synchronized void syncTag(String currentTag) {
+        if (!currentTag.equals(tag)) {
+            bodies.clear();
+            tag = currentTag;
+        }
+    }
+
+    public synchronized byte[] get(String key) {
+        return bodies.get(key);
+    }
+
+    public synchronized void put(String key, byte[] body) {
+        bodies.put(key, body);
+    }
+
+    public synchronized int size() {
+        return bodies.size();
+    }
+
+    public synchronized void clear() {
+        bodies.clear();
+        tag = null;
+    }
+}
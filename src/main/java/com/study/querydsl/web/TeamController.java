@@ -0,0 +1,28 @@
+package com.study.querydsl.web;
+
+import com.study.querydsl.repository.TeamQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamQueryRepository teamQueryRepository;
+    private final ConditionalResponses conditionalResponses;
+
+    @GetMapping("/teams")
+    public ResponseEntity<byte[]> findTeams(WebRequest request) {
+        return conditionalResponses.respond(request, "teams", teamQueryRepository::findAll);
+    }
+
+    @GetMapping("/teams/{id}")
+    public ResponseEntity<byte[]> findTeam(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.respond(request, "team:" + id,
+                () -> teamQueryRepository.findById(id));
+    }
+}
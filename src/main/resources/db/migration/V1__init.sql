@@ -0,0 +1,45 @@
+create sequence hello_seq start with 1 increment by 50;
+create sequence member_seq start with 1 increment by 50;
+create sequence team_seq start with 1 increment by 50;
+
+create table hello (
+    id bigint not null,
+    primary key (id)
+);
+
+create table team (
+    team_id bigint not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    age integer not null,
+    team_id bigint,
+    username varchar(255),
+    username_norm varchar(255),
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+create index idx_member_username_norm on member (username_norm);
+
+create table team_stats (
+    team_id bigint not null,
+    member_count bigint not null,
+    age_sum bigint not null,
+    age_avg double precision not null,
+    primary key (team_id),
+    constraint fk_team_stats_team foreign key (team_id) references team (team_id)
+);
+
+create table member_username_gram (
+    id bigint generated by default as identity,
+    member_id bigint not null,
+    gram varchar(3) not null,
+    primary key (id)
+);
+
+create index idx_member_username_gram on member_username_gram (gram, member_id);
+create index idx_member_username_gram_member on member_username_gram (member_id);
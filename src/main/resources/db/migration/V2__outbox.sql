@@ -0,0 +1,11 @@
+create table outbox_event (
+    id bigint generated by default as identity,
+    aggregate_type varchar(20) not null,
+    aggregate_id bigint,
+    event_type varchar(20) not null,
+    payload varchar(4000),
+    created_at timestamp(6) not null,
+    locked_by varchar(36),
+    locked_until timestamp(6),
+    primary key (id)
+);
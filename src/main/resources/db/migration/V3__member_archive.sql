@@ -0,0 +1,16 @@
+alter table member add column last_active_at timestamp(6);
+
+create index idx_member_last_active_at on member (last_active_at);
+
+create table member_archive (
+    member_id bigint not null,
+    age integer not null,
+    team_id bigint,
+    username varchar(255),
+    username_norm varchar(255),
+    last_active_at timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (member_id)
+);
+
+create index idx_member_archive_username_norm on member_archive (username_norm);
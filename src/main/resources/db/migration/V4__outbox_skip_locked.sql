@@ -0,0 +1,3 @@
+-- 릴레이가 select ... for update skip locked 로 선점하므로 임대 컬럼은 쓰지 않는다.
+alter table outbox_event drop column locked_by;
+alter table outbox_event drop column locked_until;
@@ -0,0 +1,10 @@
+create table aggregate_version (
+    aggregate varchar(32) not null,
+    version bigint not null,
+    primary key (aggregate)
+);
+
+-- 스키마를 다시 만들어도 이전 ETag 와 겹치지 않도록 생성 시각에서 시작한다.
+insert into aggregate_version (aggregate, version) values
+    ('MEMBER', cast(extract(epoch from current_timestamp) * 1000 as bigint)),
+    ('TEAM', cast(extract(epoch from current_timestamp) * 1000 as bigint));
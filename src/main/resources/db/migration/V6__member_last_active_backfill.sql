@@ -0,0 +1,5 @@
+-- V3 이전에 저장된 회원은 활동 시각이 없어 보관 대상에서 빠진다.
+-- 마이그레이션 시각을 마지막 활동으로 보고 채운 뒤 비어 있지 않도록 한다.
+update member set last_active_at = current_timestamp where last_active_at is null;
+
+alter table member alter column last_active_at set not null;
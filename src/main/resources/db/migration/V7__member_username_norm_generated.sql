@@ -0,0 +1,9 @@
+-- username_norm 을 JPA 콜백 대신 DB 생성 컬럼으로 바꾼다.
+-- JPQL, JDBC, 벌크 연산으로 username 을 바꿔도 함께 갱신된다.
+drop index idx_member_username_norm;
+
+alter table member drop column username_norm;
+
+alter table member add column username_norm varchar(255) generated always as (lower(trim(username)));
+
+create index idx_member_username_norm on member (username_norm);
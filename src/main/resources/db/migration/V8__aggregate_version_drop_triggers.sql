@@ -0,0 +1,6 @@
+-- 버전은 커밋 후 애플리케이션(AggregateVersionListener)이 트랜잭션당 한 번 올린다.
+-- 이전 V5 로 만든 트리거(쓰기마다 같은 행을 올려 쓰기를 직렬화한다)가 남은 DB 에서 지운다.
+drop trigger if exists member_version_statement;
+drop trigger if exists member_version_row;
+drop trigger if exists team_version_statement;
+drop trigger if exists team_version_row;
@@ -0,0 +1,2 @@
+-- 릴레이가 애그리거트별 가장 오래된 이벤트만 선점하므로 애그리거트, id 순 인덱스를 둔다.
+create index idx_outbox_event_aggregate on outbox_event (aggregate_type, aggregate_id, id);
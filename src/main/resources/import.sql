@@ -0,0 +1,3 @@
+-- ddl-auto(create, create-drop) 로 스키마를 만든 뒤 하이버네이트가 실행한다. (한 줄에 한 문장)
+-- fast 프로파일(Flyway)은 V5__aggregate_version.sql 에서 같은 내용을 만든다.
+insert into aggregate_version (aggregate, version) values ('MEMBER', cast(extract(epoch from current_timestamp) * 1000 as bigint)), ('TEAM', cast(extract(epoch from current_timestamp) * 1000 as bigint));
@@ -0,0 +1,176 @@
+package com.study.querydsl.archive;
+
+import com.study.querydsl.bloom.UsernameExistenceService;
+import com.study.querydsl.dto.MemberSearchCondition;
+import com.study.querydsl.dto.MemberTeamDto;
+import com.study.querydsl.dto.TeamStatsDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.repository.MemberQueryRepository;
+import com.study.querydsl.stats.TeamStatsRepository;
+import com.study.querydsl.version.Aggregate;
+import com.study.querydsl.version.AggregateVersions;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 보관 작업은 배치마다 트랜잭션을 커밋하므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest
+public class MemberArchiverTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberArchiver memberArchiver;
+
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    AggregateVersions aggregateVersions;
+
+    @Autowired
+    UsernameExistenceService usernameExistenceService;
+
+    @BeforeEach
+    public void before(){
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            // member1, member3 은 1년 넘게 활동이 없다.
+            Member member1 = new Member("member1", 10, teamA);
+            Member member3 = new Member("member3", 30, teamB);
+            member1.setLastActiveAt(LocalDateTime.now().minusYears(2));
+            member3.setLastActiveAt(LocalDateTime.now().minusYears(2));
+
+            em.persist(member1);
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(member3);
+            em.persist(new Member("member4", 40, teamB));
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from TeamStats").executeUpdate();
+            em.createQuery("delete from MemberUsernameGram").executeUpdate();
+            em.createQuery("delete from OutboxEvent").executeUpdate();
+            em.createQuery("delete from MemberArchive").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    /**
+     * 오래된 회원만 member_archive 로 옮기고 검색 색인, 통계, 버전을 맞춘다.
+     */
+    @Test
+    public void archive(){
+        long memberVersion = aggregateVersions.current(Aggregate.MEMBER);
+
+        long archived = memberArchiver.archiveInactiveBefore(LocalDateTime.now().minusYears(1));
+
+        Assertions.assertThat(archived).isEqualTo(2);
+        Assertions.assertThat(jdbcTemplate.queryForList("select username from member order by username", String.class))
+                .containsExactly("member2", "member4");
+        Assertions.assertThat(jdbcTemplate.queryForList("select username from member_archive order by username", String.class))
+                .containsExactly("member1", "member3");
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from member_username_gram g" +
+                " where not exists (select 1 from member m where m.member_id = g.member_id)", Long.class))
+                .isZero();
+
+        TeamStatsDto teamA = teamStatsRepository.findByTeamName("teamA");
+        Assertions.assertThat(teamA.getMemberCount()).isEqualTo(1);
+        Assertions.assertThat(teamA.getAgeAvg()).isEqualTo(20);
+
+        Assertions.assertThat(aggregateVersions.current(Aggregate.MEMBER)).isGreaterThan(memberVersion);
+    }
+
+    /**
+     * 기본 조회는 member 만, includeArchived 면 보관된 회원까지 id 순으로 합친다.
+     */
+    @Test
+    public void search(){
+        memberArchiver.archiveInactiveBefore(LocalDateTime.now().minusYears(1));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        List<MemberTeamDto> hot = memberQueryRepository.search(condition, 0, 10);
+        Assertions.assertThat(hot).extracting("username").containsExactly("member2", "member4");
+
+        condition.setIncludeArchived(true);
+        List<MemberTeamDto> all = memberQueryRepository.search(condition, 0, 10);
+        Assertions.assertThat(all).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+        Assertions.assertThat(all).extracting("teamName").containsExactly("teamA", "teamA", "teamB", "teamB");
+
+        condition.setTeamName("teamB");
+        List<MemberTeamDto> page = memberQueryRepository.search(condition, 1, 1);
+        Assertions.assertThat(page).extracting("username").containsExactly("member4");
+    }
+
+    /**
+     * 기준보다 최근에 활동한 회원은 옮기지 않는다.
+     */
+    @Test
+    public void nothingToArchive(){
+        long archived = memberArchiver.archiveInactiveBefore(LocalDateTime.now().minusYears(3));
+
+        Assertions.assertThat(archived).isZero();
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isEqualTo(4);
+    }
+
+    /**
+     * 회원 정보가 바뀌면 활동한 것으로 보고 옮기지 않는다.
+     */
+    @Test
+    public void activity(){
+        transactionTemplate.executeWithoutResult(status -> em.createQuery(
+                        "select m from Member m where m.username = 'member1'", Member.class)
+                .getSingleResult()
+                .setAge(11));
+
+        long archived = memberArchiver.archiveInactiveBefore(LocalDateTime.now().minusYears(1));
+
+        Assertions.assertThat(archived).isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForList("select username from member_archive", String.class))
+                .containsExactly("member3");
+    }
+
+    /**
+     * 보관된 회원의 이름은 계속 사용 중이다. (같은 이름으로 가입할 수 없다.)
+     */
+    @Test
+    public void archivedUsernameExists(){
+        memberArchiver.archiveInactiveBefore(LocalDateTime.now().minusYears(1));
+
+        Assertions.assertThat(usernameExistenceService.exists("member1")).isTrue();
+
+        usernameExistenceService.rebuild();
+        Assertions.assertThat(usernameExistenceService.exists("member3")).isTrue();
+    }
+}
@@ -0,0 +1,95 @@
+package com.study.querydsl.bloom;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+public class UsernameExistenceServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    UsernameExistenceService usernameExistenceService;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    @BeforeEach
+    public void before(){
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.flush();
+    }
+
+    @Test
+    public void exists(){
+        Assertions.assertThat(usernameExistenceService.exists("member1")).isTrue();
+        Assertions.assertThat(usernameExistenceService.exists("member2")).isTrue();
+        Assertions.assertThat(usernameExistenceService.exists("member3")).isFalse();
+    }
+
+    /**
+     * 재구성 후에도 저장된 이름은 빠지지 않는다. (미탐 없음)
+     */
+    @Test
+    public void rebuild(){
+        usernameExistenceService.rebuild();
+        em.persist(new Member("member3", 30));
+        em.flush();
+
+        Assertions.assertThat(usernameExistenceService.exists("member1")).isTrue();
+        Assertions.assertThat(usernameExistenceService.exists("member3")).isTrue();
+        Assertions.assertThat(usernameExistenceService.falsePositiveRate()).isBetween(0.0, 1.0);
+    }
+
+    /**
+     * 재구성 스캔이 못 보는(커밋 전) 이름도 새 필터에 남는다.
+     */
+    @Test
+    public void rebuildKeepsUncommitted(){
+        em.persist(new Member("member4", 40));
+        em.flush();
+
+        // 다른 스레드(별도 트랜잭션)에서 재구성하면 스캔에는 member4 가 보이지 않는다.
+        CompletableFuture.runAsync(usernameExistenceService::rebuild).join();
+
+        Assertions.assertThat(usernameExistenceService.exists("member4")).isTrue();
+    }
+
+    @Test
+    public void bulkUpdate(){
+        bulkOperations.update(member, member.username.eq("member2"), clause -> clause.set(member.username, "renamed"));
+
+        Assertions.assertThat(usernameExistenceService.exists("renamed")).isTrue();
+    }
+
+    @Test
+    public void bloomFilter(){
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertThat(filter.mightContain("member" + i)).isTrue();
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertThat(falsePositives).isLessThan(300);
+    }
+}
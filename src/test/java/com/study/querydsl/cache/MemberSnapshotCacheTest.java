@@ -0,0 +1,164 @@
+package com.study.querydsl.cache;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.study.querydsl.cache.MemberFinder.Backend.DATABASE;
+import static com.study.querydsl.cache.MemberFinder.Backend.MEMORY;
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static com.study.querydsl.query.MemberExpressions.*;
+
+/**
+ * 스냅샷은 커밋된 데이터만 읽으므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ * 회원 스냅샷은 기본으로 꺼져 있어 테스트에서 켠다.
+ */
+@SpringBootTest(properties = "querydsl.snapshot.members.enabled=true")
+public class MemberSnapshotCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberFinder memberFinder;
+
+    @Autowired
+    MemberSnapshotCache memberSnapshotCache;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void before(){
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from TeamStats").executeUpdate();
+            em.createQuery("delete from MemberUsernameGram").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        memberSnapshotCache.markStale();
+    }
+
+    /**
+     * 같은 조건을 DB, 메모리에서 실행해 결과를 비교한다.
+     */
+    @Test
+    public void samePredicateOnBothBackends(){
+        List<Predicate> predicates = List.of(
+                Expressions.allOf(usernameEq("member1"), ageEq(10)),
+                Expressions.allOf(memberTeamNameEq("teamB"), member.age.gt(30)),
+                member.age.between(15, 35));
+
+        for (Predicate predicate : predicates) {
+            List<String> db = usernames(memberFinder.findMembers(predicate, DATABASE));
+            List<String> memory = usernames(memberFinder.findMembers(predicate, MEMORY));
+
+            Assertions.assertThat(memory).as(predicate.toString()).containsExactlyInAnyOrderElementsOf(db);
+        }
+    }
+
+    @Test
+    public void teams(){
+        List<Team> result = memberSnapshotCache.findTeams(team.name.eq("teamA"));
+
+        Assertions.assertThat(result).extracting("name").containsExactly("teamA");
+    }
+
+    /**
+     * 커밋된 변경은 다음 조회에 반영된다.
+     */
+    @Test
+    public void refreshAfterCommit(){
+        Assertions.assertThat(memberFinder.findMembers(usernameEq("member5"), MEMORY)).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member5", 50)));
+
+        Assertions.assertThat(memberFinder.findMembers(usernameEq("member5"), MEMORY)).hasSize(1);
+    }
+
+    /**
+     * 한 트랜잭션에서 여러 건을 바꿔도 커밋 후 한 번에 반영된다.
+     */
+    @Test
+    public void refreshAfterCommitOnce(){
+        Assertions.assertThat(memberSnapshotCache.findTeams(team.name.eq("teamC"))).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamC = new Team("teamC");
+            em.persist(teamC);
+            em.persist(new Member("member6", 60, teamC));
+            em.persist(new Member("member7", 70, teamC));
+        });
+
+        Assertions.assertThat(memberSnapshotCache.findTeams(team.name.eq("teamC"))).hasSize(1);
+        Assertions.assertThat(memberFinder.findMembers(memberTeamNameEq("teamC"), MEMORY)).hasSize(2);
+    }
+
+    /**
+     * 읽는 도중 만료되면(그 사이 변경이 커밋되면) 읽은 스냅샷을 두지 않고 다음 조회에서 다시 읽는다.
+     */
+    @Test
+    public void staleDuringLoad(){
+        AtomicInteger loads = new AtomicInteger();
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        MemberSnapshotCache cache = new MemberSnapshotCache(queryFactory, transactionManager, true, 10_000) {
+            @Override
+            IndexedSnapshot<Team> loadTeams() {
+                IndexedSnapshot<Team> snapshot = super.loadTeams();
+                if (loads.incrementAndGet() == 1) {
+                    // 첫 번째 읽기가 끝나기 전에 teamC 가 커밋되고 만료된 상황
+                    newTransaction.executeWithoutResult(status -> em.persist(new Team("teamC")));
+                    markStale(List.of(Team.class));
+                }
+                return snapshot;
+            }
+        };
+
+        Assertions.assertThat(cache.findTeams(team.name.eq("teamC"))).isEmpty();
+        Assertions.assertThat(cache.findTeams(team.name.eq("teamC"))).hasSize(1);
+        Assertions.assertThat(cache.findTeams(team.name.eq("teamC"))).hasSize(1);
+        Assertions.assertThat(loads).hasValue(2);
+    }
+
+    private static List<String> usernames(List<Member> members) {
+        return members.stream().map(Member::getUsername).toList();
+    }
+}
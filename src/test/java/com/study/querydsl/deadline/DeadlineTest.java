@@ -0,0 +1,131 @@
+package com.study.querydsl.deadline;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static com.study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+public class DeadlineTest {
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    @Autowired
+    EntityManager em;
+
+    @AfterEach
+    public void after(){
+        DeadlineContext.clear();
+    }
+
+    /**
+     * 남은 시간을 초 단위로 내림해 타임아웃 힌트로 건다. (마감을 넘기지 않는다.)
+     */
+    @Test
+    public void timeoutHint(){
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(2500)));
+
+        Object timeout = transactionTemplate.execute(status -> {
+            Query query = queryFactory.selectFrom(member).createQuery();
+            return query.getHints().get(QueryDeadlines.TIMEOUT_HINT);
+        });
+
+        Assertions.assertThat(timeout).isEqualTo(2000);
+    }
+
+    /**
+     * 1초 미만이 남으면 최소 단위인 1초를 건다.
+     */
+    @Test
+    public void minimumOneSecond(){
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(500)));
+
+        Assertions.assertThat(QueryDeadlines.remainingSeconds()).isEqualTo(1);
+    }
+
+    /**
+     * 남은 시간이 없으면 쿼리를 만들지 않고 실패한다.
+     */
+    @Test
+    public void failFastWhenExpired(){
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+
+        Assertions.assertThatThrownBy(QueryDeadlines::remainingSeconds)
+                .isInstanceOf(DeadlineExceededException.class);
+    }
+
+    /**
+     * JdbcTemplate(NamedParameterJdbcTemplate) statement 에도 타임아웃을 건다.
+     */
+    @Test
+    public void jdbcTemplateTimeout(){
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(3500)));
+
+        Integer timeout = jdbcTemplate.execute((StatementCallback<Integer>) statement -> statement.getQueryTimeout());
+
+        Assertions.assertThat(timeout).isEqualTo(3);
+    }
+
+    /**
+     * 벌크 연산은 세션 기본 타임아웃으로 건다.
+     */
+    @Test
+    public void bulkTimeout(){
+        Object timeout = transactionTemplate.execute(status -> {
+            Member saved = new Member("deadline", 10);
+            em.persist(saved);
+            em.flush();
+
+            DeadlineContext.set(Deadline.after(Duration.ofMillis(2500)));
+            bulkOperations.update(member, member.id.eq(saved.getId()), clause -> clause.set(member.age, 11));
+            status.setRollbackOnly();
+            return em.getProperties().get(QueryDeadlines.TIMEOUT_HINT);
+        });
+
+        Assertions.assertThat(timeout).isEqualTo(2000);
+    }
+
+    @Test
+    public void noDeadlineNoHint(){
+        Object timeout = transactionTemplate.execute(status ->
+                queryFactory.selectFrom(member).createQuery().getHints().get(QueryDeadlines.TIMEOUT_HINT));
+
+        Assertions.assertThat(timeout).isNull();
+    }
+
+    /**
+     * 마감이 지난 요청은 트랜잭션(커넥션)을 시작하지 않는다.
+     */
+    @Test
+    public void failFastBeforeTransaction(){
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+
+        Assertions.assertThatThrownBy(() -> transactionTemplate.execute(status ->
+                        queryFactory.selectFrom(member).fetch()))
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("begin transaction");
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Commit;
+import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -55,5 +56,26 @@ class MemberTest {
 
     }
 
+    /**
+     * 바이트코드 향상 여부와 관계없이 팀의 회원 목록(연관관계 반대편)에 한 번만 추가된다.
+     */
+    @Test
+    @Rollback
+    public void inverseSide(){
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        Assertions.assertThat(teamA.getMembers()).containsExactly(member1);
 
+        em.flush();
+        em.clear();
+
+        // 지연 로딩 컬렉션(초기화 전)에 추가해도 중복되지 않는다.
+        Team loaded = em.find(Team.class, teamA.getId());
+        Member member2 = new Member("member2", 20, loaded);
+        em.persist(member2);
+        Assertions.assertThat(loaded.getMembers()).extracting("username").containsExactly("member1", "member2");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.study.querydsl.export;
+
+import com.study.querydsl.entity.Member;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest
+@Transactional
+public class MemberExportTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @BeforeEach
+    public void before(){
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.persist(new Member("김\"회원\", 3", 30));
+        em.persist(new Member("member4 ", 40));
+        em.flush();
+    }
+
+    @Test
+    public void exportCsv(){
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = memberExportService.exportMembers(20, Channels.newChannel(out));
+
+        Assertions.assertThat(rows).isEqualTo(3);
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "username,age\n" +
+                "member2,20\n" +
+                "\"김\"\"회원\"\", 3\",30\n" +
+                "\"member4 \",40\n");
+    }
+}
@@ -0,0 +1,57 @@
+package com.study.querydsl.fixture;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.bloom.UsernameExistenceService;
+import com.study.querydsl.plan.PlanRegressionExtension;
+import com.study.querydsl.version.Aggregate;
+import com.study.querydsl.version.AggregateVersions;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.EnumSet;
+
+/**
+ * 대용량 데이터 테스트 공통 설정
+ * 모든 하위 클래스가 같은 설정을 쓰므로 스프링 컨텍스트(인메모리 DB 포함)는 한 번만 뜬다.
+ * 데이터는 클래스마다 {@link MemberFixture} 스냅샷으로 되돌리고, 각 테스트는 롤백된다.
+ * JDBC 적재는 엔티티 이벤트가 없으므로 이름 Bloom filter 는 적재 후 다시 만들고 애그리거트 버전도 올린다.
+ * 대용량 조회의 실행 계획이 클래스 안에서 바뀌면 실패한다. ({@link PlanRegressionExtension})
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fixture;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Transactional
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(PlanRegressionExtension.class)
+public abstract class FixtureTestSupport {
+
+    @Autowired
+    protected EntityManager em;
+
+    @Autowired
+    protected JPAQueryFactory queryFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    UsernameExistenceService usernameExistenceService;
+
+    @Autowired
+    AggregateVersions aggregateVersions;
+
+    @BeforeAll
+    void restoreFixture() {
+        MemberFixture.restore(dataSource);
+        usernameExistenceService.rebuild();
+        aggregateVersions.increment(EnumSet.allOf(Aggregate.class));
+    }
+}
@@ -0,0 +1,66 @@
+package com.study.querydsl.fixture;
+
+import com.querydsl.core.Tuple;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.stats.TeamStatsRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+public class LargeDatasetQueryTest extends FixtureTestSupport {
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Test
+    public void count(){
+        long count = queryFactory.select(member.count()).from(member).fetchOne();
+
+        Assertions.assertThat(count).isEqualTo(MemberFixture.MEMBERS);
+    }
+
+    @Test
+    public void paging(){
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .orderBy(member.id.desc())
+                .offset(10)
+                .limit(20)
+                .fetch();
+
+        Assertions.assertThat(result).hasSize(20);
+        Assertions.assertThat(result.get(0).getId()).isEqualTo(MemberFixture.MEMBERS - 10L);
+    }
+
+    /**
+     * group() 과 같은 집계를 team_stats 결과와 비교
+     */
+    @Test
+    public void groupMatchesTeamStats(){
+        Tuple tuple = queryFactory
+                .select(team.name, member.age.avg())
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.eq("team1"))
+                .groupBy(team.name)
+                .fetchOne();
+
+        Assertions.assertThat(teamStatsRepository.findByTeamName("team1").getAgeAvg())
+                .isEqualTo(tuple.get(member.age.avg()));
+    }
+
+    /**
+     * 테스트에서 변경한 데이터는 롤백된다.
+     */
+    @Test
+    public void writeIsRolledBack(){
+        queryFactory.delete(member).where(member.age.gt(30)).execute();
+
+        Assertions.assertThat(queryFactory.selectFrom(member).where(member.age.gt(30)).fetchFirst()).isNull();
+    }
+}
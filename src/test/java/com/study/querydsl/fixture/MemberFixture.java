@@ -0,0 +1,150 @@
+package com.study.querydsl.fixture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 대용량 테스트 데이터 (기본 팀 100, 회원 1만 / ./gradlew fixtureTest 는 팀 1만, 회원 100만)
+ *
+ * 1. DB 마다 최초 한 번 SQL(system_range)로 데이터를 만들고 H2 SCRIPT 로 build/fixtures 에 스냅샷을 남긴다.
+ *    스냅샷 파일 이름에 스키마 해시를 넣어 엔티티가 바뀌면 다시 만든다.
+ * 2. 이후에는 스냅샷을 RUNSCRIPT 로 불러온다.
+ * 3. 불러온 데이터는 같은 DB 의 FIXTURE 스키마에 복사해 두고, 테스트 클래스마다 그 복사본으로 되돌린다.
+ *
+ * 적재 여부는 DB 에 FIXTURE 스키마가 있는지로 판단하므로 컨텍스트(DataSource)가 여러 개여도 각자 적재된다.
+ *
+ * 크기 조정 : -Dfixture.teams=10000 -Dfixture.members=1000000
+ * 이름 색인(member_username_gram)까지 만들려면 -Dfixture.grams=true
+ */
+@Slf4j
+public final class MemberFixture {
+
+    public static final int TEAMS = Integer.getInteger("fixture.teams", 100);
+    public static final int MEMBERS = Integer.getInteger("fixture.members", 10_000);
+    private static final boolean GRAMS = Boolean.getBoolean("fixture.grams");
+
+    private static final File SNAPSHOT_DIR = new File("build/fixtures");
+    private static final String FIXTURE_SCHEMA = "FIXTURE";
+
+    private MemberFixture() {
+    }
+
+    /**
+     * 테스트 클래스 시작 시 호출한다. DB 에 복사본(FIXTURE 스키마)이 없을 때만 데이터를 적재한다.
+     */
+    public static synchronized void restore(DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<String> tables = fixtureTables(jdbc);
+        if (tables.isEmpty()) {
+            load(jdbc);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        jdbc.execute("set referential_integrity false");
+        try {
+            for (String table : tables) {
+                jdbc.execute("truncate table public." + table);
+                // 생성 컬럼(username_norm)에는 값을 넣을 수 없으므로 나머지 컬럼만 옮긴다.
+                String columns = String.join(", ", jdbc.queryForList(
+                        "select column_name from information_schema.columns" +
+                        " where table_schema = 'PUBLIC' and table_name = ? and is_generated = 'NEVER'" +
+                        " order by ordinal_position", String.class, table));
+                jdbc.execute("insert into public." + table + " (" + columns + ") select " + columns +
+                        " from " + FIXTURE_SCHEMA + "." + table);
+            }
+        } finally {
+            jdbc.execute("set referential_integrity true");
+        }
+        restartIdentityColumns(jdbc);
+        log.info("fixture restored in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private static void load(JdbcTemplate jdbc) {
+        long start = System.currentTimeMillis();
+        File snapshot = new File(SNAPSHOT_DIR, "members-%d-%d%s-%s.zip".formatted(
+                TEAMS, MEMBERS, GRAMS ? "-grams" : "", schemaHash(jdbc)));
+
+        if (snapshot.exists()) {
+            jdbc.execute("drop all objects");
+            jdbc.execute("runscript from '" + snapshot.getPath() + "' compression zip");
+            log.info("fixture loaded from {} in {} ms", snapshot, System.currentTimeMillis() - start);
+        } else {
+            generate(jdbc);
+            SNAPSHOT_DIR.mkdirs();
+            jdbc.execute("script to '" + snapshot.getPath() + "' compression zip schema public");
+            log.info("fixture generated to {} in {} ms", snapshot, System.currentTimeMillis() - start);
+        }
+
+        // 버전은 되돌리면 이전 ETag 와 겹칠 수 있으므로 스냅샷에서 뺀다.
+        List<String> tables = jdbc.queryForList(
+                "select table_name from information_schema.tables" +
+                " where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'" +
+                " and table_name <> 'AGGREGATE_VERSION'", String.class);
+        jdbc.execute("drop schema if exists " + FIXTURE_SCHEMA + " cascade");
+        jdbc.execute("create schema " + FIXTURE_SCHEMA);
+        for (String table : tables) {
+            jdbc.execute("create table " + FIXTURE_SCHEMA + "." + table + " as select * from public." + table);
+        }
+    }
+
+    private static void generate(JdbcTemplate jdbc) {
+        jdbc.update("insert into team (team_id, name) select x, 'team' || x from system_range(1, ?)", TEAMS);
+        jdbc.update("insert into member (member_id, username, age, team_id, last_active_at)" +
+                " select x, 'member' || x, mod(x * 7, 60) + 10, mod(x, ?) + 1, current_timestamp" +
+                " from system_range(1, ?)", TEAMS, MEMBERS);
+
+        jdbc.update("insert into team_stats (team_id, member_count, age_sum, age_avg)" +
+                " select team_id, count(*), sum(age), avg(cast(age as double))" +
+                " from member group by team_id");
+
+        if (GRAMS) {
+            // trigram (시작 표시 포함), UsernameGrams 와 같은 규칙
+            jdbc.update("insert into member_username_gram (member_id, gram)" +
+                    " select distinct m.member_id, substring('^' || m.username_norm, g.x, 3)" +
+                    " from member m join system_range(1, 64) g on g.x + 2 <= length(m.username_norm) + 1");
+        }
+
+        // 테스트에서 추가로 저장하는 엔티티의 id 와 겹치지 않도록 시퀀스를 옮긴다.
+        jdbc.execute("alter sequence team_seq restart with " + (TEAMS + 100));
+        jdbc.execute("alter sequence member_seq restart with " + (MEMBERS + 100));
+    }
+
+    private static List<String> fixtureTables(JdbcTemplate jdbc) {
+        return jdbc.queryForList(
+                "select table_name from information_schema.tables" +
+                " where table_schema = '" + FIXTURE_SCHEMA + "'", String.class);
+    }
+
+    /**
+     * id 를 직접 넣어 복원했으므로 identity 컬럼의 다음 값을 최대값 뒤로 옮긴다.
+     */
+    private static void restartIdentityColumns(JdbcTemplate jdbc) {
+        jdbc.queryForList(
+                "select table_name, column_name from information_schema.columns" +
+                " where table_schema = 'PUBLIC' and is_identity = 'YES'").forEach(column -> {
+            String table = (String) column.get("TABLE_NAME");
+            String name = (String) column.get("COLUMN_NAME");
+            Long max = jdbc.queryForObject("select coalesce(max(" + name + "), 0) from public." + table, Long.class);
+            jdbc.execute("alter table public." + table + " alter column " + name + " restart with " + (max + 1));
+        });
+    }
+
+    private static String schemaHash(JdbcTemplate jdbc) {
+        List<String> ddl = jdbc.queryForList("script nodata", String.class);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ddl.forEach(statement -> digest.update(statement.getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.study.querydsl.outbox;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static com.study.querydsl.entity.QMember.member;
+
+/**
+ * 릴레이는 커밋된 이벤트만 읽으므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ * 스케줄 실행은 막고 relay() 를 직접 호출한다.
+ */
+@SpringBootTest(properties = "querydsl.outbox.poll-interval=3600000")
+public class OutboxRelayTest {
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        @Primary
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+        final List<OutboxMessage> messages = new ArrayList<>();
+        boolean fail;
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            if (fail) {
+                throw new IllegalStateException("broker down");
+            }
+            messages.addAll(batch);
+        }
+    }
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    @Autowired
+    RecordingSink sink;
+
+    Long member1Id;
+
+    @BeforeEach
+    public void before(){
+        member1Id = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+
+            Member member1 = new Member("member1", 10, teamA);
+            em.persist(member1);
+            em.persist(new Member("member2", 20, teamA));
+            return member1.getId();
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from TeamStats").executeUpdate();
+            em.createQuery("delete from MemberUsernameGram").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            em.createQuery("delete from OutboxEvent").executeUpdate();
+        });
+        sink.messages.clear();
+        sink.fail = false;
+    }
+
+    /**
+     * 변경과 같은 트랜잭션에서 쌓인 이벤트가 순서대로 발행되고 아웃박스에서 지워진다.
+     */
+    @Test
+    public void relay(){
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, member1Id).setAge(11));
+
+        int published = outboxRelay.relay();
+
+        Assertions.assertThat(published).isEqualTo(4);
+        Assertions.assertThat(sink.messages)
+                .extracting(OutboxMessage::aggregateType, OutboxMessage::eventType)
+                .containsExactly(
+                        Assertions.tuple("Team", "CREATED"),
+                        Assertions.tuple("Member", "CREATED"),
+                        Assertions.tuple("Member", "CREATED"),
+                        Assertions.tuple("Member", "UPDATED"));
+        Assertions.assertThat(sink.messages.get(3).payload()).contains("\"age\":11");
+        Assertions.assertThat(pending()).isZero();
+    }
+
+    /**
+     * 같은 회원의 앞선 이벤트를 다른 릴레이가 잠그고 있으면 뒤 이벤트는 선점하지 않는다. (애그리거트별 순서)
+     */
+    @Test
+    public void aggregateOrder() throws Exception {
+        outboxRelay.relay();
+        sink.messages.clear();
+
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, member1Id).setAge(11));
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, member1Id).setAge(12));
+
+        // 다른 릴레이가 첫 번째 이벤트를 잠근 상태
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherRelay = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select id from outbox_event order by id fetch first 1 rows only for update", Long.class);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        try {
+            Assertions.assertThat(outboxRelay.relay()).isZero();
+        } finally {
+            release.countDown();
+            otherRelay.get();
+        }
+
+        Assertions.assertThat(outboxRelay.relay()).isEqualTo(2);
+        Assertions.assertThat(sink.messages)
+                .extracting(OutboxMessage::payload)
+                .satisfiesExactly(
+                        payload -> Assertions.assertThat(payload).contains("\"age\":11"),
+                        payload -> Assertions.assertThat(payload).contains("\"age\":12"));
+    }
+
+    /**
+     * 롤백된 변경은 이벤트도 남지 않는다.
+     */
+    @Test
+    public void rollback(){
+        outboxRelay.relay();
+        sink.messages.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, member1Id).setAge(99);
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(pending()).isZero();
+        Assertions.assertThat(outboxRelay.relay()).isZero();
+    }
+
+    /**
+     * 엔티티 이벤트가 없는 벌크 연산도 바뀐 회원마다 변경 후 상태로 남는다.
+     */
+    @Test
+    public void bulkUpdate(){
+        outboxRelay.relay();
+        sink.messages.clear();
+
+        transactionTemplate.executeWithoutResult(status -> bulkOperations.update(member, member.age.lt(15),
+                clause -> clause.set(member.age, member.age.add(1))));
+
+        outboxRelay.relay();
+
+        Assertions.assertThat(sink.messages).hasSize(1);
+        OutboxMessage message = sink.messages.get(0);
+        Assertions.assertThat(message.eventType()).isEqualTo("UPDATED");
+        Assertions.assertThat(message.aggregateId()).isEqualTo(member1Id);
+        Assertions.assertThat(message.payload()).contains("\"age\":11");
+    }
+
+    /**
+     * 벌크 삭제는 지워지기 전 상태로 회원마다 남는다.
+     */
+    @Test
+    public void bulkDelete(){
+        outboxRelay.relay();
+        sink.messages.clear();
+
+        transactionTemplate.executeWithoutResult(status -> bulkOperations.delete(member, member.age.lt(28)));
+
+        outboxRelay.relay();
+
+        Assertions.assertThat(sink.messages)
+                .extracting(OutboxMessage::eventType)
+                .containsExactly("DELETED", "DELETED");
+        Assertions.assertThat(sink.messages.get(0).aggregateId()).isEqualTo(member1Id);
+        Assertions.assertThat(sink.messages.get(0).payload()).contains("\"username\":\"member1\"");
+    }
+
+    /**
+     * 발행에 실패한 이벤트는 남아 있다가 다음 실행에서 다시 발행된다.
+     */
+    @Test
+    public void retry(){
+        sink.fail = true;
+        Assertions.assertThat(outboxRelay.relay()).isZero();
+        Assertions.assertThat(pending()).isEqualTo(3);
+
+        sink.fail = false;
+        Assertions.assertThat(outboxRelay.relay()).isEqualTo(3);
+        Assertions.assertThat(pending()).isZero();
+    }
+
+    private long pending() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox_event", Long.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.study.querydsl.plan;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 테스트 클래스가 끝날 때 받아들이지 않은 실행 계획 변경이 있으면 실패시킨다.
+ * 의도한 변경은 테스트에서 {@link PlanStore#acceptChanges()} 로 받아들인다.
+ *
+ * <pre>
+ * &#64;SpringBootTest
+ * &#64;ExtendWith(PlanRegressionExtension.class)
+ * </pre>
+ */
+public class PlanRegressionExtension implements AfterAllCallback {
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        applicationContext.getBean(QueryPlanCapturer.class).awaitPending(Duration.ofSeconds(10));
+
+        PlanStore planStore = applicationContext.getBean(PlanStore.class);
+        List<PlanChange> changes = planStore.changes();
+        if (changes.isEmpty()) {
+            return;
+        }
+        // 다음 테스트 클래스가 같은 컨텍스트를 쓰더라도 같은 변경으로 다시 실패하지 않게 한다.
+        planStore.acceptChanges();
+        throw new AssertionError("unaccepted query plan changes:\n" + changes.stream()
+                .map(change -> change.before() + " -> " + change.after().shape() + "\t" + change.fingerprint())
+                .collect(Collectors.joining("\n")));
+    }
+}
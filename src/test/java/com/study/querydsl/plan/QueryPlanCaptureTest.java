@@ -0,0 +1,233 @@
+package com.study.querydsl.plan;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static com.study.querydsl.query.MemberExpressions.MEMBER_SUB;
+
+/**
+ * 모든 select 의 실행 계획을 수집하도록 기준 시간을 0 으로 둔다.
+ * 인덱스 생성, 삭제(DDL)는 H2 에서 트랜잭션을 커밋하므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ * EXPLAIN 은 다른 커넥션에서 비동기로 실행되므로 계획을 확인하기 전에 기다린다.
+ */
+@SpringBootTest(properties = {
+        "querydsl.plan-capture.threshold=0ms",
+        "querydsl.plan-capture.recapture-interval=0ms"
+})
+@ExtendWith(PlanRegressionExtension.class)
+public class QueryPlanCaptureTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    PlanStore planStore;
+
+    @Autowired
+    QueryPlanCapturer queryPlanCapturer;
+
+    Long member1Id;
+
+    @BeforeEach
+    public void before(){
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            for (int i = 0; i < 100; i++) {
+                Member saved = new Member("member" + i, i % 50, i % 2 == 0 ? teamA : teamB);
+                em.persist(saved);
+                if (i == 0) {
+                    member1Id = saved.getId();
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        queryPlanCapturer.awaitPending(Duration.ofSeconds(10));
+        jdbcTemplate.execute("drop index if exists idx_member_age_plan");
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from TeamStats").executeUpdate();
+            em.createQuery("delete from MemberUsernameGram").executeUpdate();
+            em.createQuery("delete from OutboxEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        planStore.acceptChanges();
+    }
+
+    /**
+     * 기본키 조회 + 팀 fetch join 은 두 테이블 모두 인덱스로 읽는다.
+     */
+    @Test
+    public void join(){
+        transactionTemplate.executeWithoutResult(status -> queryFactory
+                .selectFrom(member)
+                .join(member.team, team).fetchJoin()
+                .where(member.id.eq(member1Id))
+                .fetchOne());
+
+        CapturedPlan plan = latestPlan("join team t1_0");
+        Assertions.assertThat(plan.shape().accesses()).hasSize(2);
+        Assertions.assertThat(plan.shape().scans("MEMBER")).isFalse();
+        Assertions.assertThat(plan.shape().scans("TEAM")).isFalse();
+        Assertions.assertThat(plan.sqlWithValues()).contains(String.valueOf(member1Id));
+    }
+
+    /**
+     * 서브쿼리의 테이블 접근도 계획 모양에 들어간다.
+     */
+    @Test
+    public void subQuery(){
+        transactionTemplate.executeWithoutResult(status -> queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(
+                        JPAExpressions.select(MEMBER_SUB.age.max()).from(MEMBER_SUB)))
+                .fetch());
+
+        CapturedPlan plan = latestPlan("(select max(");
+        Assertions.assertThat(plan.shape().accesses()).hasSize(2).allMatch(access -> access.startsWith("MEMBER:"));
+    }
+
+    /**
+     * 인덱스가 사라져 같은 쿼리가 전체 스캔으로 바뀌면 변경으로 잡힌다.
+     */
+    @Test
+    public void indexToScan(){
+        jdbcTemplate.execute("create index idx_member_age_plan on member (age)");
+        fetchByAge(10);
+
+        CapturedPlan before = latestPlan("from member m1_0 where m1_0.age=?");
+        Assertions.assertThat(before.shape().accesses()).containsExactly("MEMBER:IDX_MEMBER_AGE_PLAN");
+        Assertions.assertThat(changes()).isEmpty();
+
+        jdbcTemplate.execute("drop index idx_member_age_plan");
+        fetchByAge(20);
+
+        Assertions.assertThat(changes()).hasSize(1);
+        PlanChange change = changes().get(0);
+        Assertions.assertThat(change.fingerprint()).isEqualTo(before.fingerprint());
+        Assertions.assertThat(change.after().shape().accesses()).containsExactly("MEMBER:scan");
+        Assertions.assertThat(change.scanIntroduced()).isTrue();
+    }
+
+    @Test
+    public void fingerprint(){
+        String a = QueryFingerprint.normalize("select m1_0.member_id from member m1_0 where m1_0.member_id in (?,?,?) and m1_0.age > 10");
+        String b = QueryFingerprint.normalize("SELECT m1_0.member_id  FROM member m1_0\n WHERE m1_0.member_id IN (?, ?) AND m1_0.age > 20");
+
+        Assertions.assertThat(a).isEqualTo(b);
+        Assertions.assertThat(QueryFingerprint.isQuery("/* comment */ select 1")).isTrue();
+        Assertions.assertThat(QueryFingerprint.isQuery("update member set age = 1")).isFalse();
+    }
+
+    /**
+     * 대기열이 가득 차 버린 EXPLAIN 은 기다리지 않는다.
+     */
+    @Test
+    public void awaitPendingAfterQueueFull(){
+        CountDownLatch release = new CountDownLatch(1);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("dataSource", new BlockingDataSource(release));
+
+        PlanCaptureProperties properties = new PlanCaptureProperties();
+        properties.setEnabled(true);
+        properties.setThreshold(Duration.ZERO);
+        properties.setRecaptureInterval(Duration.ZERO);
+        properties.setQueueSize(1);
+
+        try (QueryPlanCapturer capturer = new QueryPlanCapturer(properties, planStore,
+                beanFactory.getBeanProvider(DataSource.class))) {
+            // 실행 중 1 건, 대기열 1 건, 나머지는 버려진다.
+            for (int i = 0; i < 5; i++) {
+                capturer.onQuery("select " + i, "select " + i, 0);
+            }
+            release.countDown();
+            capturer.awaitPending(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * 풀려날 때까지 기다렸다가 실패하는 DataSource (계획은 기록되지 않는다.)
+     */
+    static class BlockingDataSource extends AbstractDataSource {
+
+        private final CountDownLatch release;
+
+        BlockingDataSource(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new SQLException("blocked");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    private void fetchByAge(int age) {
+        transactionTemplate.executeWithoutResult(status -> queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(age))
+                .fetch());
+    }
+
+    private List<PlanChange> changes() {
+        queryPlanCapturer.awaitPending(Duration.ofSeconds(10));
+        return planStore.changes();
+    }
+
+    private CapturedPlan latestPlan(String fragment) {
+        queryPlanCapturer.awaitPending(Duration.ofSeconds(10));
+        return planStore.plans().stream()
+                .filter(plan -> plan.fingerprint().contains(fragment))
+                .max(Comparator.comparing(CapturedPlan::capturedAt))
+                .orElseThrow(() -> new AssertionError("no plan captured for " + fragment));
+    }
+}
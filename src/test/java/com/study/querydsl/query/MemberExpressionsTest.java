@@ -0,0 +1,87 @@
+package com.study.querydsl.query;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static com.study.querydsl.query.MemberExpressions.*;
+
+@SpringBootTest
+@Transactional
+public class MemberExpressionsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before(){
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    /**
+     * 같은 조건 상수에 다른 값을 바인딩한다.
+     */
+    @Test
+    public void paramBinding(){
+        List<Member> result1 = queryFactory.selectFrom(member).where(AGE_GOE).set(AGE_MIN, 30).fetch();
+        List<Member> result2 = queryFactory.selectFrom(member).where(AGE_GOE).set(AGE_MIN, 40).fetch();
+
+        Assertions.assertThat(result1).extracting("username").containsExactlyInAnyOrder("member3", "member4");
+        Assertions.assertThat(result2).extracting("username").containsExactly("member4");
+    }
+
+    /**
+     * 하한, 상한 조건을 한 쿼리에서 함께 쓴다.
+     */
+    @Test
+    public void ageRange(){
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .where(AGE_GOE, AGE_LOE)
+                .set(AGE_MIN, 20)
+                .set(AGE_MAX, 30)
+                .fetch();
+
+        Assertions.assertThat(result).extracting("username").containsExactlyInAnyOrder("member2", "member3");
+    }
+
+    @Test
+    public void sharedAliasAndJoin(){
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .join(member.team, team)
+                .where(TEAM_NAME_EQ,
+                        member.age.eq(
+                                JPAExpressions
+                                        .select(MAX_AGE_SUB)
+                                        .from(MEMBER_SUB)
+                                        .where(MEMBER_SUB.team.eq(member.team))))
+                .set(TEAM_NAME, "teamA")
+                .fetch();
+
+        Assertions.assertThat(result).extracting("username").containsExactly("member2");
+    }
+}
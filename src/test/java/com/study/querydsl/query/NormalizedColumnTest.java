@@ -0,0 +1,119 @@
+package com.study.querydsl.query;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.search.MemberSearchPredicates.usernameEqIgnoreCase;
+
+@SpringBootTest
+@Transactional
+public class NormalizedColumnTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    @BeforeEach
+    public void before(){
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("Member2", 20));
+        em.persist(new Member("member4 ", 40));
+    }
+
+    @Test
+    public void normalizedOnPersist(){
+        Member findMember = queryFactory
+                .selectFrom(member)
+                .where(usernameEqIgnoreCase("MEMBER4"))
+                .fetchOne();
+
+        Assertions.assertThat(findMember.getUsername()).isEqualTo("member4 ");
+        Assertions.assertThat(findMember.getUsernameNormalized()).isEqualTo("member4");
+    }
+
+    /**
+     * lower(trim(username)) 은 정규화 컬럼으로 치환되어 직렬화된다.
+     */
+    @Test
+    public void rewriteLowerTrim(){
+        String jpql = queryFactory
+                .selectFrom(member)
+                .where(member.username.trim().lower().eq("member4"))
+                .toString();
+
+        Assertions.assertThat(jpql).contains("member1.usernameNormalized = ?1");
+        Assertions.assertThat(jpql).doesNotContain("lower(");
+        Assertions.assertThat(queryFactory.selectFrom(member).where(member.username.trim().lower().eq("member4")).fetch())
+                .extracting("username").containsExactly("member4 ");
+    }
+
+    /**
+     * lower(username) 은 공백을 남기므로 치환하지 않는다.
+     */
+    @Test
+    public void lowerNotRewritten(){
+        Assertions.assertThat(queryFactory.selectFrom(member).where(member.username.lower().eq("member4 ")).toString())
+                .contains("lower(");
+        Assertions.assertThat(queryFactory.selectFrom(member).where(member.username.lower().eq("member4 ")).fetch())
+                .extracting("username").containsExactly("member4 ");
+        Assertions.assertThat(queryFactory.select(member.username.lower()).from(member).where(member.age.eq(40)).fetchOne())
+                .isEqualTo("member4 ");
+    }
+
+    @Test
+    public void lowerFunction(){
+        // sqlFunction2 와 같은 조건. 대문자가 없는 이름이 조회된다.
+        List<String> result = queryFactory
+                .select(member.username)
+                .from(member)
+                .where(member.username.eq(Expressions.stringTemplate("function('lower', {0})", member.username)))
+                .fetch();
+
+        Assertions.assertThat(result).containsExactlyInAnyOrder("member1", "member4 ");
+    }
+
+    @Test
+    public void rewriteEqualsIgnoreCase(){
+        QMember m = new QMember("m");
+        List<Member> trimmed = queryFactory
+                .selectFrom(m)
+                .where(m.username.trim().equalsIgnoreCase("Member4"))
+                .fetch();
+        List<Member> untrimmed = queryFactory
+                .selectFrom(m)
+                .where(m.username.equalsIgnoreCase("Member4"))
+                .fetch();
+
+        Assertions.assertThat(trimmed).extracting("username").containsExactly("member4 ");
+        Assertions.assertThat(untrimmed).isEmpty();
+    }
+
+    /**
+     * 정규화 컬럼은 DB 가 만들므로 벌크 연산으로 이름을 바꿔도 맞는다.
+     */
+    @Test
+    public void bulkUpdate(){
+        bulkOperations.update(member, member.username.eq("Member2"), clause -> clause.set(member.username, " KIM "));
+
+        Assertions.assertThat(queryFactory.select(member.username).from(member).where(usernameEqIgnoreCase("kim")).fetch())
+                .containsExactly(" KIM ");
+    }
+}
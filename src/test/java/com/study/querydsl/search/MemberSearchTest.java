@@ -0,0 +1,108 @@
+package com.study.querydsl.search;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.search.MemberSearchPredicates.usernameContains;
+import static com.study.querydsl.search.MemberSearchPredicates.usernameStartsWith;
+
+@SpringBootTest
+@Transactional
+public class MemberSearchTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    @Autowired
+    UsernameGramIndexer usernameGramIndexer;
+
+    @BeforeEach
+    public void before(){
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("Member2", 20, teamA));
+        em.persist(new Member("remember", 30, teamA));
+        em.persist(new Member("kim", 40, teamA));
+    }
+
+    @Test
+    public void contains(){
+        List<String> result = queryFactory
+                .select(member.username)
+                .from(member)
+                .where(usernameContains("EMBER"))
+                .orderBy(member.username.asc())
+                .fetch();
+
+        Assertions.assertThat(result).containsExactly("Member2", "member1", "remember");
+    }
+
+    @Test
+    public void startsWith(){
+        List<String> result = queryFactory
+                .select(member.username)
+                .from(member)
+                .where(usernameStartsWith("mem"), member.age.goe(20))
+                .fetch();
+
+        Assertions.assertThat(result).containsExactly("Member2");
+    }
+
+    /**
+     * 이름이 바뀌면 색인도 같이 바뀐다.
+     */
+    @Test
+    public void reindexOnUpdate(){
+        Member kim = queryFactory.selectFrom(member).where(member.username.eq("kim")).fetchOne();
+        kim.setUsername("lee");
+
+        Assertions.assertThat(queryFactory.selectFrom(member).where(usernameContains("kim")).fetch()).isEmpty();
+        Assertions.assertThat(queryFactory.selectFrom(member).where(usernameStartsWith("le")).fetch()).containsExactly(kim);
+    }
+
+    /**
+     * 벌크 연산으로 바뀐 이름도 바로 색인된다.
+     */
+    @Test
+    public void reindexOnBulkUpdate(){
+        bulkOperations.update(member, member.username.eq("kim"), clause -> clause.set(member.username, "park"));
+
+        Assertions.assertThat(queryFactory.select(member.username).from(member).where(usernameContains("ark")).fetch())
+                .containsExactly("park");
+        Assertions.assertThat(queryFactory.selectFrom(member).where(usernameContains("kim")).fetch()).isEmpty();
+    }
+
+    /**
+     * JPQL 을 직접 실행해 바뀐 이름은 재구성으로 맞춘다.
+     */
+    @Test
+    public void rebuild(){
+        em.flush();
+        em.createQuery("update Member m set m.username = 'choi' where m.username = 'kim'").executeUpdate();
+
+        usernameGramIndexer.rebuild();
+
+        Assertions.assertThat(queryFactory.select(member.username).from(member).where(usernameStartsWith("cho")).fetch())
+                .containsExactly("choi");
+    }
+}
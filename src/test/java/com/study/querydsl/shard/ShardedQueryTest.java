@@ -0,0 +1,155 @@
+package com.study.querydsl.shard;
+
+import com.querydsl.core.Tuple;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+
+@SpringBootTest(properties = {
+        "querydsl.sharding.enabled=true",
+        "querydsl.sharding.ddl-auto=create-drop",
+        "querydsl.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "querydsl.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1"
+})
+public class ShardedQueryTest {
+
+    @Autowired
+    ShardedQueryExecutor executor;
+
+    Long teamAId;
+    Long teamBId;
+
+    /**
+     * 새 팀은 샤드를 돌아가며 저장되므로 teamA, teamB 는 서로 다른 샤드에 있다.
+     */
+    @BeforeEach
+    public void before(){
+        for (int shard = 0; shard < executor.shardCount(); shard++) {
+            executor.writeOnShard(shard, em -> em.createQuery("delete from Member").executeUpdate());
+            executor.writeOnShard(shard, em -> em.createQuery("delete from Team").executeUpdate());
+        }
+        teamAId = saveTeam("teamA", new int[]{10, 20});
+        teamBId = saveTeam("teamB", new int[]{30, 40});
+    }
+
+    private Long saveTeam(String name, int[] ages) {
+        return executor.writeForNewTeam(em -> {
+            Team team = new Team(name);
+            em.persist(team);
+            for (int age : ages) {
+                em.persist(new Member(name + "-" + age, age, team));
+            }
+            return team.getId();
+        });
+    }
+
+    @Test
+    public void routeByTeam(){
+        List<String> result = executor.forTeam(teamAId, qf -> qf
+                .select(member.username)
+                .from(member)
+                .where(member.team.id.eq(teamAId))
+                .orderBy(member.age.asc())
+                .fetch());
+
+        Assertions.assertThat(executor.shardOf(teamAId)).isNotEqualTo(executor.shardOf(teamBId));
+        Assertions.assertThat(result).containsExactly("teamA-10", "teamA-20");
+    }
+
+    /**
+     * 샤드마다 따로 만든 id 가 겹치지 않고, 팀 id 로 찾은 샤드에 팀이 있다.
+     */
+    @Test
+    public void idRanges(){
+        List<Long> memberIds = executor.fetchAll(qf -> qf.select(member.id).from(member));
+
+        Assertions.assertThat(memberIds).hasSize(4).doesNotHaveDuplicates();
+        Assertions.assertThat(executor.forTeam(teamBId, qf -> qf.selectFrom(team).where(team.id.eq(teamBId)).fetchOne()))
+                .isNotNull();
+        Assertions.assertThat(executor.writeForTeam(teamBId, em -> em.find(Team.class, teamBId).getName()))
+                .isEqualTo("teamB");
+    }
+
+    /**
+     * 샤드 간 정렬 + 페이징 병합 (쿼리의 orderBy 로 다시 정렬한다.)
+     */
+    @Test
+    public void mergedOrderAndLimit(){
+        List<Tuple> result = executor.fetch(
+                qf -> qf.select(member.username, member.age)
+                        .from(member)
+                        .orderBy(member.age.desc()),
+                1, 2);
+
+        Assertions.assertThat(result).extracting(t -> t.get(member.username))
+                .containsExactly("teamB-30", "teamA-20");
+
+        List<String> names = executor.fetch(
+                qf -> qf.select(member.username)
+                        .from(member)
+                        .orderBy(member.username.asc()),
+                0, 3);
+        Assertions.assertThat(names).containsExactly("teamA-10", "teamA-20", "teamB-30");
+    }
+
+    /**
+     * 정렬 기준이 조회 결과에 없으면 병합할 수 없다.
+     */
+    @Test
+    public void mergedOrderNotSelected(){
+        Assertions.assertThatThrownBy(() -> executor.fetch(
+                        qf -> qf.select(member.username).from(member).orderBy(member.age.desc()),
+                        0, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * aggregation 테스트와 같은 집계를 샤드 간에 병합
+     */
+    @Test
+    public void mergedAggregate(){
+        ShardAggregate aggregate = executor.aggregate(qf -> qf.from(member), member.age);
+
+        Assertions.assertThat(aggregate.count()).isEqualTo(4);
+        Assertions.assertThat(aggregate.sum()).isEqualTo(100);
+        Assertions.assertThat(aggregate.avg()).isEqualTo(25);
+        Assertions.assertThat(aggregate.max()).isEqualTo(40);
+        Assertions.assertThat(aggregate.min()).isEqualTo(10);
+
+        Assertions.assertThat(executor.count(qf -> qf.selectFrom(member).join(member.team, team)
+                .where(team.name.startsWith("team")))).isEqualTo(4);
+        // groupBy 는 그룹 수를 센다.
+        Assertions.assertThat(executor.count(qf -> qf.select(member.age).from(member).groupBy(member.age))).isEqualTo(4);
+        Assertions.assertThat(executor.count(qf -> qf.select(team.name).from(member).join(member.team, team)
+                .groupBy(team.name))).isEqualTo(2);
+    }
+
+    /**
+     * 여러 샤드에 걸친 그룹, distinct 값은 한 번만 센다.
+     */
+    @Test
+    public void countAcrossShards(){
+        // teamA(10, 20) 와 다른 샤드의 teamB 에도 10살 회원을 넣어 age=10 그룹이 두 샤드에 걸치게 한다.
+        executor.writeForTeam(teamBId, em -> {
+            em.persist(new Member("teamB-10", 10, em.find(Team.class, teamBId)));
+            return null;
+        });
+
+        Assertions.assertThat(executor.count(qf -> qf.select(member.age).from(member).groupBy(member.age)))
+                .isEqualTo(4);
+        Assertions.assertThat(executor.count(qf -> qf.select(member.count()).from(member).groupBy(member.age)))
+                .isEqualTo(4);
+        Assertions.assertThat(executor.count(qf -> qf.select(member.age).distinct().from(member)))
+                .isEqualTo(4);
+        Assertions.assertThat(executor.count(qf -> qf.selectFrom(member))).isEqualTo(5);
+    }
+}
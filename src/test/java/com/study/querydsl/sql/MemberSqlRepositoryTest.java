@@ -0,0 +1,56 @@
+package com.study.querydsl.sql;
+
+import com.study.querydsl.dto.MemberDto;
+import com.study.querydsl.dto.UserDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class MemberSqlRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @BeforeEach
+    public void before(){
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        // JPA 로 저장한 데이터를 같은 트랜잭션의 JDBC 조회에서 보려면 flush 가 필요하다.
+        em.flush();
+    }
+
+    @Test
+    public void findMemberDtos(){
+        List<MemberDto> result = memberSqlRepository.findMemberDtos("teamA", null);
+
+        Assertions.assertThat(result).containsExactly(new MemberDto("member1", 10), new MemberDto("member2", 20));
+    }
+
+    @Test
+    public void findUserDtos(){
+        List<UserDto> result = memberSqlRepository.findUserDtos(null, 30);
+
+        Assertions.assertThat(result).containsExactly(new UserDto("member3", 30), new UserDto("member4", 40));
+    }
+}
@@ -0,0 +1,132 @@
+package com.study.querydsl.stats;
+
+import com.study.querydsl.dto.TeamStatsDto;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+public class TeamStatsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    TeamStatsRebuilder teamStatsRebuilder;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    Member member1;
+    Member member4;
+
+    @BeforeEach
+    public void before(){
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+    }
+
+    /**
+     * insert 이벤트로 통계가 쌓인다.
+     */
+    @Test
+    public void insert(){
+        List<TeamStatsDto> result = teamStatsRepository.findLeaderboard(10);
+
+        Assertions.assertThat(result).extracting("teamName").containsExactly("teamB", "teamA");
+        Assertions.assertThat(result).extracting("memberCount").containsExactly(2L, 2L);
+        Assertions.assertThat(result).extracting("ageAvg").containsExactly(35.0, 15.0);
+    }
+
+    /**
+     * 나이 변경, 팀 이동, 삭제가 통계에 반영된다.
+     */
+    @Test
+    public void updateAndDelete(){
+        member1.setAge(30);
+        member4.setTeam(member1.getTeam());
+        em.flush();
+        em.clear();
+
+        TeamStatsDto teamA = teamStatsRepository.findByTeamName("teamA");
+        Assertions.assertThat(teamA.getMemberCount()).isEqualTo(3);
+        Assertions.assertThat(teamA.getAgeAvg()).isEqualTo(30);
+
+        em.remove(em.find(Member.class, member4.getId()));
+        em.flush();
+        em.clear();
+
+        TeamStatsDto teamB = teamStatsRepository.findByTeamName("teamB");
+        Assertions.assertThat(teamB.getMemberCount()).isEqualTo(1);
+        Assertions.assertThat(teamStatsRepository.findByTeamName("teamA").getMemberCount()).isEqualTo(2);
+    }
+
+    /**
+     * BulkOperations 를 거친 벌크 연산은 바로 반영된다.
+     */
+    @Test
+    public void bulk(){
+        bulkOperations.update(member, member.age.goe(30), clause -> clause.set(member.age, member.age.add(10)));
+
+        Assertions.assertThat(teamStatsRepository.findByTeamName("teamA").getAgeAvg()).isEqualTo(15);
+        Assertions.assertThat(teamStatsRepository.findByTeamName("teamB").getAgeAvg()).isEqualTo(45);
+
+        bulkOperations.delete(member, member.username.eq("member1"));
+
+        TeamStatsDto teamA = teamStatsRepository.findByTeamName("teamA");
+        Assertions.assertThat(teamA.getMemberCount()).isEqualTo(1);
+        Assertions.assertThat(teamA.getAgeAvg()).isEqualTo(20);
+    }
+
+    /**
+     * 회원이 모두 빠진 팀은 통계 행이 지워져 순위에 나오지 않는다.
+     */
+    @Test
+    public void emptyTeam(){
+        bulkOperations.delete(member, member.username.in("member1", "member2"));
+
+        Assertions.assertThat(teamStatsRepository.findLeaderboard(10)).extracting("teamName").containsExactly("teamB");
+        Assertions.assertThat(teamStatsRepository.findByTeamName("teamA")).isNull();
+    }
+
+    /**
+     * JPQL 을 직접 실행해 이벤트 없이 바뀐 데이터는 재구성으로 맞춘다.
+     */
+    @Test
+    public void rebuild(){
+        em.flush();
+        em.createQuery("update Member m set m.age = m.age + 10").executeUpdate();
+
+        teamStatsRebuilder.rebuild();
+
+        Assertions.assertThat(teamStatsRepository.findByTeamName("teamA").getAgeAvg()).isEqualTo(25);
+        Assertions.assertThat(teamStatsRepository.findByTeamName("teamB").getAgeAvg()).isEqualTo(45);
+    }
+}
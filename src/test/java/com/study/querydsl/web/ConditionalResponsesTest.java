@@ -0,0 +1,210 @@
+package com.study.querydsl.web;
+
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import com.study.querydsl.event.BulkChange;
+import com.study.querydsl.event.BulkOperations;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 버전은 쓰기가 커밋된 뒤에 올라가므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ * 다른 인스턴스의 변경이 반영되는지 보려고 태그 유지 시간을 줄인다.
+ */
+@SpringBootTest(properties = "querydsl.version.tag-ttl=200ms")
+@AutoConfigureMockMvc
+public class ConditionalResponsesTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    BulkOperations bulkOperations;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ResponseBodyCache responseBodyCache;
+
+    Long member1Id;
+    Long teamAId;
+
+    @BeforeEach
+    public void before(){
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            Member member1 = new Member("member1", 10, teamA);
+            em.persist(member1);
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+
+            member1Id = member1.getId();
+            teamAId = teamA.getId();
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from TeamStats").executeUpdate();
+            em.createQuery("delete from MemberUsernameGram").executeUpdate();
+            em.createQuery("delete from OutboxEvent").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    /**
+     * 변경이 없으면 같은 ETag 로 304 를 받는다.
+     */
+    @Test
+    public void notModified() throws Exception {
+        String etag = etag("/members?teamName=teamA");
+
+        mockMvc.perform(get("/members?teamName=teamA").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    /**
+     * 커밋된 변경은 ETag 를 바꾸고 새 본문을 내려준다.
+     */
+    @Test
+    public void modified() throws Exception {
+        String etag = etag("/members/" + member1Id);
+
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, member1Id).setAge(11));
+
+        MvcResult result = mockMvc.perform(get("/members/" + member1Id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(11))
+                .andReturn();
+        Assertions.assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    /**
+     * 롤백된 변경은 ETag 를 바꾸지 않는다.
+     */
+    @Test
+    public void rollback() throws Exception {
+        String etag = etag("/teams");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, member1Id).setAge(11);
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        mockMvc.perform(get("/teams").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * 엔티티 이벤트가 없는 벌크 연산도 ETag 를 바꾼다.
+     */
+    @Test
+    public void bulk() throws Exception {
+        String etag = etag("/teams/" + teamAId);
+
+        transactionTemplate.executeWithoutResult(status ->
+                bulkOperations.delete(member, member.username.eq("member2")));
+
+        mockMvc.perform(get("/teams/" + teamAId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberCount").value(1));
+    }
+
+    /**
+     * BulkOperations.apply 로 감싼 JDBC 직접 쓰기도 ETag 를 바꾸고 캐시된 본문을 버린다.
+     */
+    @Test
+    public void jdbc() throws Exception {
+        String etag = etag("/members/" + member1Id);
+        Assertions.assertThat(responseBodyCache.size()).isPositive();
+
+        transactionTemplate.executeWithoutResult(status -> bulkOperations.apply(
+                new BulkChange(Member.class, BulkChange.Kind.UPDATE, List.of(member1Id)),
+                () -> jdbcTemplate.update("update member set age = 12 where member_id = ?", member1Id)));
+
+        mockMvc.perform(get("/members/" + member1Id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(12));
+        Assertions.assertThat(responseBodyCache.size()).isEqualTo(1);
+    }
+
+    /**
+     * 응답에 나가지 않는 활동 시각만 바뀌면 ETag 는 그대로다.
+     */
+    @Test
+    public void activityOnly() throws Exception {
+        String etag = etag("/members/" + member1Id);
+
+        transactionTemplate.executeWithoutResult(status ->
+                em.find(Member.class, member1Id).setLastActiveAt(LocalDateTime.now().plusMinutes(1)));
+
+        mockMvc.perform(get("/members/" + member1Id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * 다른 인스턴스가 올린 버전은 태그 유지 시간(tag-ttl)이 지나면 반영된다.
+     * 그 전까지는 메모리의 태그로 응답한다. (304 에 DB 조회 없음)
+     */
+    @Test
+    public void otherInstance() throws Exception {
+        String etag = etag("/teams");
+
+        jdbcTemplate.update("update aggregate_version set version = version + 1 where aggregate = 'TEAM'");
+
+        mockMvc.perform(get("/teams").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Thread.sleep(300);
+        mockMvc.perform(get("/teams").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void notFound() throws Exception {
+        mockMvc.perform(get("/members/" + (member1Id + 1000)))
+                .andExpect(status().isNotFound());
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+}